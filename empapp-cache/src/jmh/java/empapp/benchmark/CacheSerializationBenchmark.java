@@ -0,0 +1,94 @@
+package empapp.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import empapp.BinaryRedisSerializer;
+import empapp.dto.AddressDto;
+import empapp.dto.EmployeeDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializationBenchmark {
+
+    public enum Format {JDK, SMILE, SMILE_LZ4}
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    @Param({"JDK", "SMILE", "SMILE_LZ4"})
+    private Format format;
+
+    private RedisSerializer<Object> serializer;
+
+    private List<EmployeeDto> employees;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        serializer = serializer(format);
+        employees = employees(size);
+        payload = serializer.serialize(employees);
+        // a méret determinisztikus, nem kell mérni, a fork kimenetében jelenik meg
+        System.out.printf("%n%s value, %d employees: %d bytes (%.1f bytes/employee)%n",
+                format, size, payload.length, (double) payload.length / size);
+    }
+
+    // két cím, minden második alkalmazottnak nincs címlistája, hogy a non_null kihagyás is szerepeljen
+    private static List<EmployeeDto> employees(int size) {
+        List<EmployeeDto> employees = new ArrayList<>(size);
+        long addressId = 1;
+        for (int i = 0; i < size; i++) {
+            EmployeeDto employee = new EmployeeDto();
+            employee.setId((long) i + 1);
+            employee.setName("Employee " + i);
+            if (i % 2 == 0) {
+                List<AddressDto> addresses = new ArrayList<>(2);
+                for (int j = 0; j < 2; j++) {
+                    AddressDto address = new AddressDto();
+                    address.setId(addressId++);
+                    address.setCity("City " + (i * j % 100));
+                    addresses.add(address);
+                }
+                employee.setAddresses(addresses);
+            }
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    // ahogy a CacheConfig beállítja, az alapértelmezett 4 KB küszöbbel
+    private static RedisSerializer<Object> serializer(Format format) {
+        if (format == Format.JDK) {
+            return RedisSerializer.java(CacheSerializationBenchmark.class.getClassLoader());
+        }
+        ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .failOnUnknownProperties(false)
+                .build();
+        return new BinaryRedisSerializer(smileMapper,
+                smileMapper.getTypeFactory().constructCollectionType(List.class, EmployeeDto.class),
+                format == Format.SMILE_LZ4 ? 4096 : 0);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployees() {
+        return serializer.serialize(employees);
+    }
+
+    @Benchmark
+    public Object deserializeEmployees() {
+        return serializer.deserialize(payload);
+    }
+}
@@ -0,0 +1,124 @@
+package empapp;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Stores the cached values of one type in Smile, the binary JSON of Jackson, prefixed by a format byte,
+ * LZ4 compressed above a size threshold. Unknown properties are ignored and missing ones left null, so
+ * that nodes running an older or newer version of the DTO can read each other's entries. Values written
+ * by the JDK serializer, e.g. before a rollout, are still read.
+ */
+public class BinaryRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte SMILE = 1;
+
+    private static final byte SMILE_LZ4 = 2;
+
+    // a RedisCache a null értéket NullValue-ként tárolja
+    private static final byte NULL_VALUE = 3;
+
+    private static final int LZ4_HEADER_LENGTH = 1 + Integer.BYTES;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final ObjectWriter writer;
+
+    private final ObjectReader reader;
+
+    private final int compressionThreshold;
+
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+
+    private final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+
+    private final RedisSerializer<Object> jdkSerializer;
+
+    /**
+     * @param smileMapper object mapper with a Smile factory
+     * @param type the type of the cached values
+     * @param compressionThreshold values larger than this in bytes are compressed, 0 or negative disables compression
+     */
+    public BinaryRedisSerializer(ObjectMapper smileMapper, JavaType type, int compressionThreshold) {
+        this.writer = smileMapper.writerFor(type);
+        this.reader = smileMapper.readerFor(type);
+        this.compressionThreshold = compressionThreshold;
+        this.jdkSerializer = RedisSerializer.java(getClass().getClassLoader());
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (value instanceof NullValue) {
+            return new byte[]{NULL_VALUE};
+        }
+        byte[] smile;
+        try {
+            smile = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+        if (compressionThreshold > 0 && smile.length > compressionThreshold) {
+            byte[] compressed = compress(smile);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        byte[] bytes = new byte[smile.length + 1];
+        bytes[0] = SMILE;
+        System.arraycopy(smile, 0, bytes, 1, smile.length);
+        return bytes;
+    }
+
+    // null, ha tömörítve sem lenne kisebb
+    private byte[] compress(byte[] smile) {
+        byte[] buffer = new byte[LZ4_HEADER_LENGTH + compressor.maxCompressedLength(smile.length)];
+        int compressedLength = compressor.compress(smile, 0, smile.length, buffer, LZ4_HEADER_LENGTH);
+        if (LZ4_HEADER_LENGTH + compressedLength >= smile.length + 1) {
+            return null;
+        }
+        ByteBuffer.wrap(buffer).put(SMILE_LZ4).putInt(smile.length);
+        byte[] bytes = new byte[LZ4_HEADER_LENGTH + compressedLength];
+        System.arraycopy(buffer, 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        // a java.io.ObjectOutputStream STREAM_MAGIC (0xACED) fejléce
+        if (bytes.length > 1 && bytes[0] == (byte) 0xAC && bytes[1] == (byte) 0xED) {
+            return jdkSerializer.deserialize(bytes);
+        }
+        try {
+            switch (bytes[0]) {
+                case SMILE:
+                    return reader.readValue(bytes, 1, bytes.length - 1);
+                case SMILE_LZ4:
+                    int length = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+                    return reader.readValue(decompressor.decompress(bytes, LZ4_HEADER_LENGTH, length));
+                case NULL_VALUE:
+                    return NullValue.INSTANCE;
+                default:
+                    throw new SerializationException("Unknown cache value format: " + bytes[0]);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package empapp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import empapp.dto.EmployeeDto;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two-level caches, in-heap L1 per node in front of Redis. As the CacheManager is our own, Boot backs off
+ * from configuring the Redis one, the spring.cache.* properties are applied here. With another
+ * spring.cache.type, e.g. simple, Boot configures the cache manager and Redis is not used.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(RedisTemplate<Object, Object> redisTemplate,
+                                                                 EmployeesProperties employeesProperties) {
+        return new CacheInvalidationPublisher(redisTemplate, employeesProperties.getCache().getInvalidationChannel());
+    }
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheProperties cacheProperties,
+                                             EmployeesProperties employeesProperties,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        // az UpdatableRedisCache a saját Redis hívásait is ebbe számolja
+        CacheStatisticsCollector statisticsCollector = cacheProperties.getRedis().isEnableStatistics()
+                ? CacheStatisticsCollector.create() : CacheStatisticsCollector.none();
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory)
+                .withStatisticsCollector(statisticsCollector);
+        RedisCacheConfiguration defaultCacheConfiguration = redisCacheConfiguration(cacheProperties.getRedis());
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new LinkedHashMap<>();
+        for (String cacheName : cacheProperties.getCacheNames()) {
+            cacheConfigurations.put(cacheName, defaultCacheConfiguration);
+        }
+        EmployeesProperties.Serialization serialization = employeesProperties.getCache().getSerialization();
+        if (serialization.getFormat() == EmployeesProperties.Format.BINARY) {
+            cacheConfigurations.putAll(binaryCacheConfigurations(defaultCacheConfiguration, serialization,
+                    objectMapperBuilder));
+        }
+        UpdatableRedisCacheManager remoteCacheManager = new UpdatableRedisCacheManager(connectionFactory, cacheWriter,
+                statisticsCollector, defaultCacheConfiguration, cacheConfigurations,
+                employeesProperties.getCache().getRefresh());
+        return new TwoLevelCacheManager(remoteCacheManager, employeesProperties.getCache().getLocal(),
+                cacheInvalidationPublisher);
+    }
+
+    // a spring.jackson.* beállításokkal, így a null mezőket sem tárolja
+    private Map<String, RedisCacheConfiguration> binaryCacheConfigurations(RedisCacheConfiguration defaultCacheConfiguration,
+                                                                          EmployeesProperties.Serialization serialization,
+                                                                          Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper smileMapper = objectMapperBuilder
+                .factory(new SmileFactory())
+                .failOnUnknownProperties(false)
+                .build();
+        TypeFactory typeFactory = smileMapper.getTypeFactory();
+        int compressionThreshold = (int) serialization.getCompressionThreshold().toBytes();
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new LinkedHashMap<>();
+        cacheConfigurations.put("employee", defaultCacheConfiguration.serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(new BinaryRedisSerializer(smileMapper,
+                        typeFactory.constructType(EmployeeDto.class), compressionThreshold))));
+        cacheConfigurations.put("employees", defaultCacheConfiguration.serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(new BinaryRedisSerializer(smileMapper,
+                        typeFactory.constructCollectionType(List.class, EmployeeDto.class), compressionThreshold))));
+        return cacheConfigurations;
+    }
+
+    // ahogy a Boot RedisCacheConfiguration-je, JDK szerializációval
+    private RedisCacheConfiguration redisCacheConfiguration(CacheProperties.Redis redisProperties) {
+        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        RedisSerializer.java(getClass().getClassLoader())));
+        if (redisProperties.getTimeToLive() != null) {
+            config = config.entryTtl(redisProperties.getTimeToLive());
+        }
+        if (redisProperties.getKeyPrefix() != null) {
+            config = config.prefixCacheNameWith(redisProperties.getKeyPrefix());
+        }
+        if (!redisProperties.isCacheNullValues()) {
+            config = config.disableCachingNullValues();
+        }
+        if (!redisProperties.isUseKeyPrefix()) {
+            config = config.disableKeyPrefix();
+        }
+        return config;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            CacheInvalidationPublisher cacheInvalidationPublisher,
+                                                                            EmployeesProperties employeesProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, cacheInvalidationPublisher.getNodeId()),
+                new ChannelTopic(employeesProperties.getCache().getInvalidationChannel()));
+        return container;
+    }
+
+    @Bean
+    public TwoLevelCacheMeterBinderProvider twoLevelCacheMeterBinderProvider() {
+        return new TwoLevelCacheMeterBinderProvider();
+    }
+}
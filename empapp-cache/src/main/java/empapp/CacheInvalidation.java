@@ -0,0 +1,19 @@
+package empapp;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * Broadcast on a put or eviction, the other nodes drop the L1 entry of the key.
+ */
+@Value
+public class CacheInvalidation implements Serializable {
+
+    String nodeId;
+
+    String cacheName;
+
+    // null esetén a teljes cache
+    Object key;
+}
@@ -0,0 +1,26 @@
+package empapp;
+
+import lombok.AllArgsConstructor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@AllArgsConstructor
+public class CacheInvalidationListener implements MessageListener {
+
+    private final RedisSerializer<Object> serializer = RedisSerializer.java(getClass().getClassLoader());
+
+    private final TwoLevelCacheManager cacheManager;
+
+    private final String nodeId;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidation invalidation = (CacheInvalidation) serializer.deserialize(message.getBody());
+        // a saját üzenetünk, az L1 már friss
+        if (nodeId.equals(invalidation.getNodeId())) {
+            return;
+        }
+        cacheManager.invalidateLocal(invalidation.getCacheName(), invalidation.getKey());
+    }
+}
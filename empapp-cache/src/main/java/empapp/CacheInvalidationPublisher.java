@@ -0,0 +1,33 @@
+package empapp;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.UUID;
+
+@Slf4j
+public class CacheInvalidationPublisher {
+
+    private final RedisTemplate<Object, Object> redisTemplate;
+
+    private final String channel;
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(RedisTemplate<Object, Object> redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void publish(String cacheName, Object key) {
+        try {
+            redisTemplate.convertAndSend(channel, new CacheInvalidation(nodeId, cacheName, key));
+        } catch (DataAccessException e) {
+            // az L2 már friss, a többi node L1 bejegyzése legfeljebb a time-to-live végéig régi
+            log.warn("Could not broadcast the invalidation of {}::{}", cacheName, key, e);
+        }
+    }
+}
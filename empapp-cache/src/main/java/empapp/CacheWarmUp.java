@@ -0,0 +1,145 @@
+package empapp;
+
+import empapp.dto.EmployeeDto;
+import empapp.entity.Employee;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fills the employees cache and the employee cache with the most recently modified employees on startup,
+ * so that the first requests after a deploy are not served from the database. The time budget covers
+ * the whole warm-up, the employees list included. Failures are logged, the application starts with a
+ * cold cache then.
+ */
+// az ApplicationRunnerek az ApplicationReadyEvent előtt futnak, addig a readiness REFUSING_TRAFFIC
+@Component
+@ConditionalOnProperty(name = "employees.cache.warm-up.enabled", havingValue = "true")
+@Slf4j
+public class CacheWarmUp implements ApplicationRunner {
+
+    private final EmployeesProperties.WarmUp properties;
+
+    private final CacheManager cacheManager;
+
+    private final EmployeeService employeeService;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmployeeMapper employeeMapper;
+
+    public CacheWarmUp(EmployeesProperties employeesProperties, CacheManager cacheManager,
+                       EmployeeService employeeService, EmployeeRepository employeeRepository,
+                       EmployeeMapper employeeMapper) {
+        this.properties = employeesProperties.getCache().getWarmUp();
+        this.cacheManager = cacheManager;
+        this.employeeService = employeeService;
+        this.employeeRepository = employeeRepository;
+        this.employeeMapper = employeeMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeBudget().toNanos();
+        try {
+            if (!warmUpEmployeeList(deadline)) {
+                log.info("Cache warm-up time budget of {} exceeded while loading the employee list",
+                        properties.getTimeBudget());
+                return;
+            }
+            int cached = warmUpEmployees(deadline);
+            log.info("Cache warm-up finished in {} ms, {} employees cached",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), cached);
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up failed, starting with a cold cache", e);
+        }
+    }
+
+    // a sync betöltés lockjával, ha egy másik node már betöltötte, a Redisből jön; a betöltés nem szakítható
+    // meg, ezért külön szálon fut, a time budget lejárta után a háttérben fejeződik be
+    private boolean warmUpEmployeeList(long deadline) {
+        CompletableFuture<?> listLoad = CompletableFuture.runAsync(employeeService::listEmployees,
+                new SimpleAsyncTaskExecutor("cache-warm-up-"));
+        try {
+            listLoad.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Can not load the employee list", e.getCause());
+        }
+    }
+
+    private int warmUpEmployees(long deadline) {
+        Cache cache = cacheManager.getCache("employee");
+        // a limitet az adatbázis alkalmazza, az azonosítókat csak ezután olvassuk csomagokban
+        List<Long> ids = employeeRepository.findIdsOrderByModifiedAtDesc(
+                PageRequest.of(0, properties.getMaxEmployees()));
+        int cached = 0;
+        for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+            // chunkok között, a megkezdett chunk még bekerül
+            if (System.nanoTime() > deadline) {
+                log.info("Cache warm-up time budget of {} exceeded, {} employees cached",
+                        properties.getTimeBudget(), cached);
+                break;
+            }
+            cached += putEmployees(cache, ids.subList(from, Math.min(from + properties.getChunkSize(), ids.size())));
+        }
+        return cached;
+    }
+
+    // a cache-ben lévőket nem írja felül, azokat a CachePut és CacheEvict már karbantartja
+    private int putEmployees(Cache cache, List<Long> ids) {
+        Map<Long, EmployeeDto> employees = new LinkedHashMap<>();
+        for (Employee employee : employeeRepository.findAllWithAddressesByIdIn(ids)) {
+            employees.put(employee.getId(), employeeMapper.toEmployeeDto(employee));
+        }
+        int stored = putAllIfAbsent(cache, employees);
+        if (stored > 0) {
+            evictDeleted(cache, employees.keySet());
+        }
+        return stored;
+    }
+
+    private int putAllIfAbsent(Cache cache, Map<Long, EmployeeDto> employees) {
+        if (cache instanceof TwoLevelCache) {
+            return ((TwoLevelCache) cache).putAllIfAbsent(employees);
+        }
+        // spring.cache.type=simple esetén nincs Redis
+        int stored = 0;
+        for (Map.Entry<Long, EmployeeDto> employee : employees.entrySet()) {
+            if (cache.putIfAbsent(employee.getKey(), employee.getValue()) == null) {
+                stored++;
+            }
+        }
+        return stored;
+    }
+
+    // az olvasás és a SET NX között commitolt törlés CacheEvictje megelőzhette az írásunkat, ezért az írás után
+    // újra lekérdezzük, megvannak-e még; a később commitolt törlés evictje pedig már a mi írásunk után jön
+    private void evictDeleted(Cache cache, Set<Long> ids) {
+        Set<Long> deleted = new HashSet<>(ids);
+        deleted.removeAll(employeeRepository.findIdsByIdIn(ids));
+        deleted.forEach(cache::evict);
+    }
+}
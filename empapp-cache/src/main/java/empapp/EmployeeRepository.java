@@ -1,10 +1,12 @@
 package empapp;
 
 import empapp.entity.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +17,15 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     @Query("select distinct e from Employee e left join fetch e.addresses where e.id = :id")
     Optional<Employee> findByIdWithAddresses(@Param("id") Long id);
+
+    // a limitet (Pageable) az adatbázis alkalmazza, az ix_employee_modified_at_nulls_last indexet olvassa végig,
+    // a PostgreSQL desc rendezésnél a null értékeket tenné előre
+    @Query("select e.id from Employee e order by e.modifiedAt desc nulls last, e.id desc")
+    List<Long> findIdsOrderByModifiedAtDesc(Pageable pageable);
+
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct e from Employee e left join fetch e.addresses where e.id in :ids")
+    List<Employee> findAllWithAddressesByIdIn(@Param("ids") Collection<Long> ids);
 }
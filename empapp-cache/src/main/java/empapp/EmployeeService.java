@@ -8,7 +8,6 @@ import lombok.AllArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -21,15 +20,19 @@ public class EmployeeService {
 
     private EmployeeMapper employeeMapper;
 
-    @CacheEvict(value = "employees", allEntries = true)
+    private EmployeesCacheUpdater employeesCacheUpdater;
+
+    // az employees listát az EmployeesCacheUpdater tartja karban
     @CachePut(key = "#result.id", value = "employee")
     public EmployeeDto createEmployee(CreateEmployeeCommand command) {
         Employee employee = employeeMapper.toEmployee(command);
         employeeRepository.save(employee);
-        return employeeMapper.toEmployeeDto(employee);
+        EmployeeDto employeeDto = employeeMapper.toEmployeeDto(employee);
+        employeesCacheUpdater.employeeChanged(employeeDto.getId());
+        return employeeDto;
     }
 
-    @Cacheable("employees") // <Void, List<EmployeeDto>>
+    @Cacheable(value = "employees", sync = true) // <Void, List<EmployeeDto>>, a betöltés alatti írást az UpdatableRedisCache észleli
     public List<EmployeeDto> listEmployees() {
         return employeeMapper.toEmployeesDto(employeeRepository.findAllWithAddresses());
     }
@@ -41,29 +44,23 @@ public class EmployeeService {
     }
 
     @Transactional
-    @Caching(
-            put = {
-                    @CachePut(value = "employee", key = "#id")
-            },
-            evict = {
-            //@CacheEvict(value = "employee", key = "#id"),
-            @CacheEvict(value = "employees", allEntries = true)
-    })
+    @CachePut(value = "employee", key = "#id")
     public EmployeeDto updateEmployee(long id, UpdateEmployeeCommand command) {
         Employee employeeToModify = employeeRepository
                 .findById(id)
                 .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id));
         employeeToModify.setName(command.getName());
-        return employeeMapper.toEmployeeDto(employeeToModify);
+        EmployeeDto employeeDto = employeeMapper.toEmployeeDto(employeeToModify);
+        // commit után
+        employeesCacheUpdater.employeeChanged(id);
+        return employeeDto;
     }
 
-    @Caching( evict = {
-            @CacheEvict(value = "employee", key = "#id"),
-            @CacheEvict(value = "employees", allEntries = true)
-    })
+    @CacheEvict(value = "employee", key = "#id")
     public void deleteEmployee(long id) {
         Employee employee = employeeRepository.findByIdWithAddresses(id)
                 .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id));
         employeeRepository.delete(employee);
+        employeesCacheUpdater.employeeChanged(id);
     }
 }
@@ -2,11 +2,13 @@ package empapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Configuration;
 
 @SpringBootApplication
 @EnableCaching
+@ConfigurationPropertiesScan
 public class EmployeesApplication
 {
 
@@ -0,0 +1,115 @@
+package empapp;
+
+import empapp.dto.EmployeeDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the cached employee list (the employees cache) up to date after the commit of a write by
+ * inserting, replacing or removing the single changed employee, instead of evicting the whole list.
+ * Falls back to eviction when the entry keeps being modified concurrently or Redis fails.
+ */
+// Nem a módosító DTO-ját teszi a listába, hanem a Redis WATCH után újraolvassa az alkalmazottat az adatbázisból:
+// ha egy másik író közben módosítja a listát, az EXEC meghiúsul és újraolvasunk, így a párhuzamos
+// létrehozás, módosítás és törlés bármilyen sorrendben a commitolt állapotra vezet.
+// A módosítás előtt kezdett teljes betöltést az UpdatableRedisCache nem tárolja, mert a hiányzó bejegyzésnél
+// az update növeli a generációs kulcsot, a fallback evict pedig törli a figyelt kulcsot.
+@Component
+@Slf4j
+public class EmployeesCacheUpdater {
+
+    private static final String CACHE_NAME = "employees";
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final CacheManager cacheManager;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmployeeMapper employeeMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public EmployeesCacheUpdater(CacheManager cacheManager, EmployeeRepository employeeRepository,
+                                 EmployeeMapper employeeMapper, PlatformTransactionManager transactionManager) {
+        this.cacheManager = cacheManager;
+        this.employeeRepository = employeeRepository;
+        this.employeeMapper = employeeMapper;
+        // commit után a régi persistence context még kötve van, az a saját, esetleg már régi állapotot adná vissza
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Applies the committed state of the employee, created, modified or deleted, to the cached list.
+     * Within a transaction it runs after the commit.
+     */
+    public void employeeChanged(long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update(id);
+                }
+            });
+        } else {
+            // tranzakción kívül a repository már commitolt
+            update(id);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void update(long id) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (!(cache instanceof TwoLevelCache)) {
+            cache.evict(SimpleKey.EMPTY);
+            return;
+        }
+        try {
+            UpdatableRedisCache.UpdateResult result = ((TwoLevelCache) cache).update(SimpleKey.EMPTY,
+                    value -> apply((List<EmployeeDto>) value, id, findEmployeeById(id)), MAX_ATTEMPTS);
+            if (result == UpdatableRedisCache.UpdateResult.CONFLICT) {
+                log.debug("The employee list kept changing concurrently, evicting it");
+                cache.evict(SimpleKey.EMPTY);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not update the cached employee list, evicting it", e);
+            cache.evict(SimpleKey.EMPTY);
+        }
+    }
+
+    private Optional<EmployeeDto> findEmployeeById(long id) {
+        return transactionTemplate.execute(status ->
+                employeeRepository.findByIdWithAddresses(id).map(employeeMapper::toEmployeeDto));
+    }
+
+    private static List<EmployeeDto> apply(List<EmployeeDto> cached, long id, Optional<EmployeeDto> employee) {
+        List<EmployeeDto> employees = new ArrayList<>(cached.size() + 1);
+        boolean replaced = false;
+        for (EmployeeDto cachedEmployee : cached) {
+            if (cachedEmployee.getId() != id) {
+                employees.add(cachedEmployee);
+            } else if (employee.isPresent()) {
+                employees.add(employee.get());
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            employee.ifPresent(employees::add);
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,120 @@
+package empapp;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@ConfigurationProperties("employees")
+@Data
+public class EmployeesProperties {
+
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+
+        private Local local = new Local();
+
+        private Refresh refresh = new Refresh();
+
+        private Serialization serialization = new Serialization();
+
+        private WarmUp warmUp = new WarmUp();
+
+        /**
+         * Redis pub/sub channel broadcasting the evictions and puts, so that the other nodes
+         * drop their local entry.
+         */
+        private String invalidationChannel = "employees:cache-invalidation";
+    }
+
+    @Data
+    public static class Local {
+
+        /**
+         * Maximum number of entries per cache in the in-heap L1 of each node.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Time to live of the L1 entries, the upper bound of serving a stale value when an
+         * invalidation message is lost.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Refresh {
+
+        /**
+         * Weight of the probabilistic early refresh (XFetch) of the entries loaded with sync = true,
+         * values above 1 favor earlier refreshes, 0 disables it.
+         */
+        private double beta = 1.0;
+
+        /**
+         * Expiry of the Redis lock of the loader, after which another node may load the entry
+         * if the loader died.
+         */
+        private Duration lockTimeout = Duration.ofSeconds(30);
+
+        /**
+         * How often the callers waiting for the loader of another node look for the value.
+         */
+        private Duration pollInterval = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Serialization {
+
+        /**
+         * Redis value format of the employee and employees caches.
+         */
+        private Format format = Format.BINARY;
+
+        /**
+         * Binary values larger than this are LZ4 compressed, 0 disables compression.
+         */
+        private DataSize compressionThreshold = DataSize.ofKilobytes(4);
+    }
+
+    @Data
+    public static class WarmUp {
+
+        /**
+         * Whether to fill the employees and employee caches on startup, before the readiness state
+         * becomes ACCEPTING_TRAFFIC.
+         */
+        private boolean enabled;
+
+        /**
+         * Number of the most recently modified employees to put into the employee cache.
+         */
+        private int maxEmployees = 10_000;
+
+        /**
+         * Number of employees loaded from the database and written to Redis at once.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Time after which no more chunks are loaded, the remaining employees are cached on first read.
+         */
+        private Duration timeBudget = Duration.ofSeconds(30);
+    }
+
+    public enum Format {
+
+        /**
+         * JDK serialization, as the other caches.
+         */
+        JDK,
+
+        /**
+         * Smile, see {@link BinaryRedisSerializer}.
+         */
+        BINARY
+    }
+}
@@ -0,0 +1,268 @@
+package empapp;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * A bounded in-heap cache (L1) of the node in front of the shared Redis cache (L2). Puts and
+ * evictions go to both tiers and are broadcast, so that the other nodes drop their L1 entry.
+ */
+// az L1 ugyanazt a példányt adja minden hívónak, a DTO-kat csak szerializálásra használjuk
+public class TwoLevelCache implements Cache {
+
+    private static final int EPOCH_STRIPES = 1024;
+
+    private final String name;
+
+    // ValueWrapper, hogy a Redisben tárolt null érték is L1 találat legyen
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local;
+
+    private final UpdatableRedisCache remote;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder remoteMisses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    // kulcsonkénti (csíkozott) érvénytelenítési számláló, az L1 töltést elveti, ha a Redis olvasás óta nőtt
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+
+    private final AtomicLong clearEpoch = new AtomicLong();
+
+    public TwoLevelCache(com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local, UpdatableRedisCache remote,
+                         CacheInvalidationPublisher invalidationPublisher) {
+        this.name = remote.getName();
+        this.local = local;
+        this.remote = remote;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        long epoch = epoch(key);
+        value = remote.get(key);
+        if (value == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        return putLocalIfAbsent(key, value, epoch);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = local.getIfPresent(key);
+        if (value != null) {
+            return (T) value.get();
+        }
+        long epoch = epoch(key);
+        AtomicBoolean loaded = new AtomicBoolean();
+        T result = remote.get(key, () -> {
+            loaded.set(true);
+            return valueLoader.call();
+        });
+        if (loaded.get()) {
+            // a Redis elvetheti a betöltés alatt módosult értéket, az L1-be a következő get teszi be
+            remoteMisses.increment();
+            return result;
+        }
+        remoteHits.increment();
+        return (T) putLocalIfAbsent(key, new SimpleValueWrapper(result), epoch).get();
+    }
+
+    // ha közben egy put már frissebb értéket tett az L1-be, a Redisből korábban olvasott nem írja felül
+    private ValueWrapper putLocalIfAbsent(Object key, ValueWrapper value) {
+        ValueWrapper existing = local.asMap().putIfAbsent(key, value);
+        return existing != null ? existing : value;
+    }
+
+    // ha a Redis olvasás óta érvénytelenítették, a régi érték nem maradhat az L1-ben; az érvénytelenítés előbb
+    // növeli a számlálót, és csak utána törli az L1-et, így vagy az törli a betett értéket, vagy itt vesszük ki
+    private ValueWrapper putLocalIfAbsent(Object key, ValueWrapper value, long epoch) {
+        ValueWrapper result = putLocalIfAbsent(key, value);
+        if (result == value && epoch(key) != epoch) {
+            local.asMap().remove(key, value);
+        }
+        return result;
+    }
+
+    private long epoch(Object key) {
+        return epochs.get(stripe(key)) + clearEpoch.get();
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), EPOCH_STRIPES);
+    }
+
+    private void invalidateLocalEntry(Object key) {
+        epochs.incrementAndGet(stripe(key));
+        local.invalidate(key);
+    }
+
+    private void invalidateLocalEntries() {
+        clearEpoch.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, new SimpleValueWrapper(value));
+        puts.increment();
+        invalidationPublisher.publish(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        long epoch = epoch(key);
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing != null) {
+            return putLocalIfAbsent(key, existing, epoch);
+        }
+        local.put(key, new SimpleValueWrapper(value));
+        puts.increment();
+        invalidationPublisher.publish(name, key);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocalEntry(key);
+        evictions.increment();
+        invalidationPublisher.publish(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateLocalEntries();
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * Atomically replaces the value in Redis, see {@link UpdatableRedisCache#update}. The L1 entries
+     * are dropped instead of updated, so that concurrent updates can not leave an older value there.
+     * They are dropped also if the Redis entry has already expired, as the nodes may still hold it in L1.
+     */
+    public UpdatableRedisCache.UpdateResult update(Object key, UnaryOperator<Object> function, int maxAttempts) {
+        UpdatableRedisCache.UpdateResult result = remote.update(key, function, maxAttempts);
+        if (result != UpdatableRedisCache.UpdateResult.CONFLICT) {
+            invalidateLocalEntry(key);
+            if (result == UpdatableRedisCache.UpdateResult.UPDATED) {
+                puts.increment();
+            }
+            invalidationPublisher.publish(name, key);
+        }
+        return result;
+    }
+
+    /**
+     * Stores the values in Redis for the keys not cached yet, see {@link UpdatableRedisCache#putAllIfAbsent}.
+     * As only missing keys are written, the L1 of the nodes is left as is.
+     */
+    public int putAllIfAbsent(Map<?, ?> values) {
+        int stored = remote.putAllIfAbsent(values);
+        puts.add(stored);
+        return stored;
+    }
+
+    /**
+     * Drops the L1 entry on another node's put or eviction, the key is {@code null} for clear.
+     */
+    public void invalidateLocal(Object key) {
+        if (key == null) {
+            invalidateLocalEntries();
+        } else {
+            invalidateLocalEntry(key);
+        }
+        invalidationsReceived.increment();
+    }
+
+    public CacheStats getLocalStats() {
+        return local.stats();
+    }
+
+    public long getLocalSize() {
+        return local.estimatedSize();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidationsReceived() {
+        return invalidationsReceived.sum();
+    }
+
+    public long getRefreshes() {
+        return remote.getRefreshes();
+    }
+
+    public long getStaleServed() {
+        return remote.getStaleServed();
+    }
+
+    public long getLoaderWaits() {
+        return remote.getLoaderWaits();
+    }
+
+    public double getLoaderWaitTime(TimeUnit unit) {
+        return remote.getLoaderWaitTime(unit);
+    }
+}
@@ -0,0 +1,56 @@
+package empapp;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Wraps every cache of the Redis cache manager into a {@link TwoLevelCache}.
+ */
+public class TwoLevelCacheManager extends AbstractCacheManager {
+
+    private final UpdatableRedisCacheManager remoteCacheManager;
+
+    private final EmployeesProperties.Local localProperties;
+
+    private final CacheInvalidationPublisher invalidationPublisher;
+
+    public TwoLevelCacheManager(UpdatableRedisCacheManager remoteCacheManager, EmployeesProperties.Local localProperties,
+                                CacheInvalidationPublisher invalidationPublisher) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.localProperties = localProperties;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        remoteCacheManager.initializeCaches();
+        return remoteCacheManager.getCacheNames().stream()
+                .map(name -> createCache((UpdatableRedisCache) remoteCacheManager.getCache(name)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        UpdatableRedisCache remote = (UpdatableRedisCache) remoteCacheManager.getCache(name);
+        return remote != null ? createCache(remote) : null;
+    }
+
+    private TwoLevelCache createCache(UpdatableRedisCache remote) {
+        return new TwoLevelCache(Caffeine.newBuilder()
+                .maximumSize(localProperties.getMaximumSize())
+                .expireAfterWrite(localProperties.getTimeToLive())
+                .recordStats()
+                .build(), remote, invalidationPublisher);
+    }
+
+    public void invalidateLocal(String cacheName, Object key) {
+        Cache cache = getCache(cacheName);
+        if (cache instanceof TwoLevelCache) {
+            ((TwoLevelCache) cache).invalidateLocal(key);
+        }
+    }
+}
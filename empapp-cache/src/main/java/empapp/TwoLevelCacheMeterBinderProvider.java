@@ -0,0 +1,137 @@
+package empapp;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The standard cache.* meters of the two-level caches, plus cache.tier.* meters per tier,
+ * e.g. cache.tier.hit.ratio{tier=l1}, and the meters of the stampede protection.
+ */
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return new TwoLevelCacheMetrics(cache, tags);
+    }
+
+    private static class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+        TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+            super(cache, cache.getName(), tags);
+        }
+
+        // a Redis méretét nem kérdezzük le, az L1 méret a cache.tier.size
+        @Override
+        protected Long size() {
+            return null;
+        }
+
+        @Override
+        protected long hitCount() {
+            TwoLevelCache cache = getCache();
+            return cache == null ? 0 : cache.getLocalStats().hitCount() + cache.getRemoteHits();
+        }
+
+        @Override
+        protected Long missCount() {
+            TwoLevelCache cache = getCache();
+            return cache == null ? null : cache.getRemoteMisses();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            TwoLevelCache cache = getCache();
+            return cache == null ? null : cache.getEvictions();
+        }
+
+        @Override
+        protected long putCount() {
+            TwoLevelCache cache = getCache();
+            return cache == null ? 0 : cache.getPuts();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            TwoLevelCache cache = getCache();
+            if (cache == null) {
+                return;
+            }
+            tierGets(registry, cache, "l1", "hit", c -> c.getLocalStats().hitCount());
+            tierGets(registry, cache, "l1", "miss", c -> c.getLocalStats().missCount());
+            tierGets(registry, cache, "l2", "hit", TwoLevelCache::getRemoteHits);
+            tierGets(registry, cache, "l2", "miss", TwoLevelCache::getRemoteMisses);
+
+            Gauge.builder("cache.tier.hit.ratio", cache, TwoLevelCacheMetrics::localHitRatio)
+                    .tags(tierTags("l1"))
+                    .description("The ratio of the lookups served by the tier")
+                    .register(registry);
+            Gauge.builder("cache.tier.hit.ratio", cache, TwoLevelCacheMetrics::remoteHitRatio)
+                    .tags(tierTags("l2"))
+                    .description("The ratio of the lookups served by the tier")
+                    .register(registry);
+
+            Gauge.builder("cache.tier.size", cache, TwoLevelCache::getLocalSize)
+                    .tags(tierTags("l1"))
+                    .description("The approximate number of entries in the tier")
+                    .register(registry);
+            FunctionCounter.builder("cache.tier.evictions", cache, c -> c.getLocalStats().evictionCount())
+                    .tags(tierTags("l1"))
+                    .description("The number of entries removed from the tier because of its size or time to live")
+                    .register(registry);
+
+            FunctionCounter.builder("cache.invalidations.received", cache, TwoLevelCache::getInvalidationsReceived)
+                    .tags(getTagsWithCacheName())
+                    .description("The number of L1 invalidations received from the other nodes")
+                    .register(registry);
+
+            FunctionCounter.builder("cache.refreshes", cache, TwoLevelCache::getRefreshes)
+                    .tags(getTagsWithCacheName())
+                    .description("The number of entries reloaded before their time to live expired")
+                    .register(registry);
+            FunctionCounter.builder("cache.stale.served", cache, TwoLevelCache::getStaleServed)
+                    .tags(getTagsWithCacheName())
+                    .description("The number of lookups served the current value while another caller refreshed it")
+                    .register(registry);
+            FunctionTimer.builder("cache.loader.wait", cache, TwoLevelCache::getLoaderWaits,
+                            c -> c.getLoaderWaitTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                    .tags(getTagsWithCacheName())
+                    .description("The time the callers missing an entry waited for another caller loading it")
+                    .register(registry);
+        }
+
+        private void tierGets(MeterRegistry registry, TwoLevelCache cache, String tier, String result,
+                              ToDoubleFunction<TwoLevelCache> count) {
+            FunctionCounter.builder("cache.tier.gets", cache, count)
+                    .tags(tierTags(tier)).tag("result", result)
+                    .description("The number of lookups in the tier, an L2 lookup follows every L1 miss")
+                    .register(registry);
+        }
+
+        private Tags tierTags(String tier) {
+            return Tags.concat(getTagsWithCacheName(), "tier", tier);
+        }
+
+        // a Caffeine hitRate() kérés nélkül 1.0, a két szint legyen egységes
+        private static double localHitRatio(TwoLevelCache cache) {
+            CacheStats stats = cache.getLocalStats();
+            return stats.requestCount() == 0 ? Double.NaN : stats.hitRate();
+        }
+
+        private static double remoteHitRatio(TwoLevelCache cache) {
+            long hits = cache.getRemoteHits();
+            long lookups = hits + cache.getRemoteMisses();
+            return lookups == 0 ? Double.NaN : (double) hits / lookups;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package empapp;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Redis cache supporting atomic read-modify-write of an entry with optimistic locking
+ * (WATCH / MULTI / EXEC), so that concurrent writers on any node do not lose each other's changes.
+ * A value loaded by {@link #get(Object, Callable)} is not stored if the entry is written, evicted
+ * or updated while absent during the load, so a load started before a commit can not overwrite it.
+ * <p>
+ * {@link #get(Object, Callable)} is protected against cache stampedes: of the callers missing the
+ * same key on all nodes only one loads it, the others wait for its value. Before the time to live
+ * expires the entry is refreshed early with a probability growing as the expiry nears and with the
+ * duration of the last load (XFetch), meanwhile the other callers are served the current value.
+ */
+public class UpdatableRedisCache extends RedisCache {
+
+    private static final byte[] GENERATION_SUFFIX = "~generation".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] DELTA_SUFFIX = "~delta".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] LOCK_SUFFIX = "~lock".getBytes(StandardCharsets.UTF_8);
+
+    // egy kérésben az érték, a hátralévő TTL és az utolsó betöltés ideje, a Lua a nil után levágná a tömböt
+    private static final RedisScript<List> FETCH_SCRIPT = RedisScript.of("return {redis.call('PTTL', KEYS[1]), "
+            + "redis.call('GET', KEYS[1]), redis.call('GET', KEYS[2])}", List.class);
+
+    private static final RedisScript<Long> UNLOCK_SCRIPT = RedisScript.of("if redis.call('GET', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('DEL', KEYS[1]) else return 0 end", Long.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final CacheStatisticsCollector statisticsCollector;
+
+    private final EmployeesProperties.Refresh refreshProperties;
+
+    // a node-on belül a Redis lockért sem versengenek a szálak
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final LongAdder refreshes = new LongAdder();
+
+    private final LongAdder staleServed = new LongAdder();
+
+    private final LongAdder loaderWaits = new LongAdder();
+
+    private final LongAdder loaderWaitNanos = new LongAdder();
+
+    public UpdatableRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfig,
+                               RedisConnectionFactory connectionFactory, CacheStatisticsCollector statisticsCollector,
+                               EmployeesProperties.Refresh refreshProperties) {
+        super(name, cacheWriter, cacheConfig);
+        this.connectionFactory = connectionFactory;
+        this.statisticsCollector = statisticsCollector;
+        this.refreshProperties = refreshProperties;
+        Arrays.setAll(locks, i -> new ReentrantLock());
+    }
+
+    public enum UpdateResult {UPDATED, ABSENT, CONFLICT}
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        byte[] cacheKey = serializeCacheKey(createCacheKey(key));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            // a RedisCacheWriter helyett olvasunk, így a statisztikát is mi vezetjük
+            statisticsCollector.incGets(getName());
+            Entry entry = fetch(connection, cacheKey);
+            if (entry == null) {
+                statisticsCollector.incMisses(getName());
+                return loadOrWait(connection, key, cacheKey, valueLoader);
+            }
+            statisticsCollector.incHits(getName());
+            if (!shouldRefreshEarly(entry)) {
+                return (T) entry.value;
+            }
+            return refreshEarly(connection, key, cacheKey, entry, valueLoader);
+        }
+    }
+
+    private Entry fetch(RedisConnection connection, byte[] cacheKey) {
+        List<Object> result = eval(connection, FETCH_SCRIPT, ReturnType.MULTI, 2,
+                cacheKey, suffixedKey(cacheKey, DELTA_SUFFIX));
+        byte[] value = (byte[]) result.get(1);
+        if (value == null) {
+            return null;
+        }
+        byte[] delta = (byte[]) result.get(2);
+        return new Entry(fromStoreValue(deserializeCacheValue(value)), (Long) result.get(0),
+                delta == null ? 0 : Long.parseLong(new String(delta, StandardCharsets.US_ASCII)));
+    }
+
+    // XFetch: now - delta * beta * ln(rand) >= expiry, TTL nélkül (-1) és ismeretlen betöltési idő mellett soha
+    private boolean shouldRefreshEarly(Entry entry) {
+        return entry.ttlMillis > 0 && entry.deltaMillis > 0
+                && -entry.deltaMillis * refreshProperties.getBeta() * Math.log(ThreadLocalRandom.current().nextDouble())
+                >= entry.ttlMillis;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T refreshEarly(RedisConnection connection, Object key, byte[] cacheKey, Entry entry,
+                               Callable<T> valueLoader) {
+        ReentrantLock lock = localLock(cacheKey);
+        if (!lock.tryLock()) {
+            staleServed.increment();
+            return (T) entry.value;
+        }
+        try {
+            byte[] lockKey = suffixedKey(cacheKey, LOCK_SUFFIX);
+            byte[] token = lockToken();
+            if (!tryLock(connection, lockKey, token)) {
+                staleServed.increment();
+                return (T) entry.value;
+            }
+            try {
+                refreshes.increment();
+                return loadAndStore(key, cacheKey, valueLoader, true);
+            } finally {
+                unlock(connection, lockKey, token);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // a helyi lockot csak a Redis lock megszerzése és a betöltés idejére tartjuk, a pollozás alatt nem, így a
+    // csíkon osztozó többi kulcs olvasói nem várnak egy másik node betöltésére
+    @SuppressWarnings("unchecked")
+    private <T> T loadOrWait(RedisConnection connection, Object key, byte[] cacheKey, Callable<T> valueLoader) {
+        long start = System.nanoTime();
+        ReentrantLock lock = localLock(cacheKey);
+        byte[] lockKey = suffixedKey(cacheKey, LOCK_SUFFIX);
+        byte[] token = lockToken();
+        boolean waited = false;
+        while (true) {
+            if (!lock.tryLock()) {
+                waited = true;
+                lock.lock();
+            }
+            try {
+                // a helyi lockra várva más szál, a pollozás alatt más node töltötte be
+                Entry entry = waited ? fetch(connection, cacheKey) : null;
+                if (entry != null) {
+                    recordWait(start);
+                    return (T) entry.value;
+                }
+                if (tryLock(connection, lockKey, token)) {
+                    if (waited) {
+                        recordWait(start);
+                    }
+                    try {
+                        return loadAndStore(key, cacheKey, valueLoader, false);
+                    } finally {
+                        unlock(connection, lockKey, token);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            waited = true;
+            sleep(key, valueLoader);
+        }
+    }
+
+    private <T> T loadAndStore(Object key, byte[] cacheKey, Callable<T> valueLoader, boolean refresh) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.watch(cacheKey, suffixedKey(cacheKey, GENERATION_SUFFIX));
+            if (!refresh) {
+                byte[] current = connection.get(cacheKey);
+                if (current != null) {
+                    connection.unwatch();
+                    @SuppressWarnings("unchecked")
+                    T value = (T) fromStoreValue(deserializeCacheValue(current));
+                    return value;
+                }
+            }
+            long start = System.nanoTime();
+            T value = load(key, valueLoader);
+            long deltaMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            Expiration expiration = expiration();
+            connection.multi();
+            connection.set(cacheKey, serializeCacheValue(preProcessCacheValue(value)), expiration,
+                    RedisStringCommands.SetOption.upsert());
+            connection.set(suffixedKey(cacheKey, DELTA_SUFFIX),
+                    Long.toString(deltaMillis).getBytes(StandardCharsets.US_ASCII), expiration,
+                    RedisStringCommands.SetOption.upsert());
+            // ha a betöltés alatt írták, nem tároljuk, a következő olvasó újratölti
+            List<Object> results = connection.exec();
+            if (results != null && !results.isEmpty()) {
+                statisticsCollector.incPuts(getName());
+            }
+            return value;
+        }
+    }
+
+    private static <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private ReentrantLock localLock(byte[] cacheKey) {
+        return locks[Math.floorMod(Arrays.hashCode(cacheKey), LOCK_STRIPES)];
+    }
+
+    private static byte[] lockToken() {
+        return UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private boolean tryLock(RedisConnection connection, byte[] lockKey, byte[] token) {
+        return Boolean.TRUE.equals(connection.set(lockKey, token, Expiration.from(refreshProperties.getLockTimeout()),
+                RedisStringCommands.SetOption.ifAbsent()));
+    }
+
+    // csak a saját lockot töröljük, ha a lockTimeout alatt nem végeztünk, már másé lehet
+    private void unlock(RedisConnection connection, byte[] lockKey, byte[] token) {
+        eval(connection, UNLOCK_SCRIPT, ReturnType.INTEGER, 1, lockKey, token);
+    }
+
+    // a szkriptet csak a hash-ével küldjük, a Redis újraindulása vagy SCRIPT FLUSH után (NOSCRIPT) egyszer egészében
+    private static <T> T eval(RedisConnection connection, RedisScript<?> script, ReturnType returnType, int numKeys,
+                              byte[]... keysAndArgs) {
+        try {
+            return connection.scriptingCommands().evalSha(script.getSha1(), returnType, numKeys, keysAndArgs);
+        } catch (DataAccessException e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            return connection.scriptingCommands().eval(script.getScriptAsString().getBytes(StandardCharsets.UTF_8),
+                    returnType, numKeys, keysAndArgs);
+        }
+    }
+
+    private static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sleep(Object key, Callable<?> valueLoader) {
+        try {
+            Thread.sleep(refreshProperties.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private void recordWait(long start) {
+        loaderWaits.increment();
+        loaderWaitNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Replaces the cached value with the result of the function, keeping the remaining time to live.
+     * Does nothing if the key is not cached, and gives up with CONFLICT if the entry is modified
+     * concurrently more than maxAttempts times.
+     */
+    public UpdateResult update(Object key, UnaryOperator<Object> function, int maxAttempts) {
+        byte[] cacheKey = serializeCacheKey(createCacheKey(key));
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            for (int attempt = 0; attempt < maxAttempts; attempt++) {
+                connection.watch(cacheKey);
+                byte[] current = connection.get(cacheKey);
+                if (current == null) {
+                    connection.unwatch();
+                    // a közben betöltő olvasó így nem tárolja a módosítás előtti állapotot
+                    byte[] generationKey = suffixedKey(cacheKey, GENERATION_SUFFIX);
+                    connection.incr(generationKey);
+                    Expiration expiration = expiration();
+                    if (!expiration.isPersistent()) {
+                        connection.pExpire(generationKey, expiration.getExpirationTimeInMilliseconds());
+                    }
+                    return UpdateResult.ABSENT;
+                }
+                Object value = function.apply(fromStoreValue(deserializeCacheValue(current)));
+                connection.multi();
+                // a TTL marad, így a lista a time-to-live lejártakor legalább egyszer teljesen újratöltődik
+                connection.set(cacheKey, serializeCacheValue(preProcessCacheValue(value)), Expiration.keepTtl(),
+                        RedisStringCommands.SetOption.upsert());
+                List<Object> results = connection.exec();
+                // a WATCH óta más módosította, újra
+                if (results != null && !results.isEmpty()) {
+                    return UpdateResult.UPDATED;
+                }
+            }
+            return UpdateResult.CONFLICT;
+        }
+    }
+
+    /**
+     * Stores the values of the keys not cached yet, in one pipeline. Returns the number of values stored.
+     */
+    public int putAllIfAbsent(Map<?, ?> values) {
+        if (values.isEmpty()) {
+            return 0;
+        }
+        Expiration expiration = expiration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            values.forEach((key, value) -> connection.set(serializeCacheKey(createCacheKey(key)),
+                    serializeCacheValue(preProcessCacheValue(value)), expiration,
+                    RedisStringCommands.SetOption.ifAbsent()));
+            return (int) connection.closePipeline().stream().filter(Boolean.TRUE::equals).count();
+        }
+    }
+
+    private Expiration expiration() {
+        Duration ttl = getCacheConfiguration().getTtl();
+        return ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl);
+    }
+
+    private static byte[] suffixedKey(byte[] cacheKey, byte[] suffix) {
+        byte[] key = new byte[cacheKey.length + suffix.length];
+        System.arraycopy(cacheKey, 0, key, 0, cacheKey.length);
+        System.arraycopy(suffix, 0, key, cacheKey.length, suffix.length);
+        return key;
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getStaleServed() {
+        return staleServed.sum();
+    }
+
+    public long getLoaderWaits() {
+        return loaderWaits.sum();
+    }
+
+    public double getLoaderWaitTime(TimeUnit unit) {
+        return (double) loaderWaitNanos.sum() / unit.toNanos(1);
+    }
+
+    private static class Entry {
+
+        private final Object value;
+
+        private final long ttlMillis;
+
+        private final long deltaMillis;
+
+        Entry(Object value, long ttlMillis, long deltaMillis) {
+            this.value = value;
+            this.ttlMillis = ttlMillis;
+            this.deltaMillis = deltaMillis;
+        }
+    }
+}
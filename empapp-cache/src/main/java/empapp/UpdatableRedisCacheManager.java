@@ -0,0 +1,43 @@
+package empapp;
+
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Map;
+
+/**
+ * Creates {@link UpdatableRedisCache} instances.
+ */
+public class UpdatableRedisCacheManager extends RedisCacheManager {
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final CacheStatisticsCollector statisticsCollector;
+
+    private final EmployeesProperties.Refresh refreshProperties;
+
+    /**
+     * @param statisticsCollector the collector of the cache writer, or {@link CacheStatisticsCollector#none()}
+     */
+    public UpdatableRedisCacheManager(RedisConnectionFactory connectionFactory, RedisCacheWriter cacheWriter,
+                                      CacheStatisticsCollector statisticsCollector,
+                                      RedisCacheConfiguration defaultCacheConfiguration,
+                                      Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+                                      EmployeesProperties.Refresh refreshProperties) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations, true);
+        this.connectionFactory = connectionFactory;
+        this.statisticsCollector = statisticsCollector;
+        this.refreshProperties = refreshProperties;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfig) {
+        RedisCache cache = super.createRedisCache(name, cacheConfig);
+        return new UpdatableRedisCache(name, cache.getNativeCache(), cache.getCacheConfiguration(), connectionFactory,
+                statisticsCollector, refreshProperties);
+    }
+}
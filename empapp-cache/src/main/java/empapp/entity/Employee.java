@@ -2,14 +2,17 @@ package empapp.entity;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import javax.persistence.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import static lombok.AccessLevel.PRIVATE;
 
 @Entity
+// a cache bemelegítés indexe (modified_at desc nulls last, id desc) a schema.sql-ben, az @Index nem ismeri a nulls last-ot
 @Data
 @NoArgsConstructor(access = PRIVATE)
 public class Employee {
@@ -23,6 +26,11 @@ public class Employee {
     @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL)
     private List<Address> addresses = new ArrayList<>();
 
+    // a cache bemelegítése a legutóbb módosítottakkal kezd, a címek módosítása nem frissíti,
+    // az alkalmazáson kívül beszúrt soroknál null
+    @UpdateTimestamp
+    private LocalDateTime modifiedAt;
+
     public Employee(String name) {
         this.name = name;
     }
@@ -0,0 +1,7 @@
+-- a Hibernate sémafrissítése (spring.jpa.generate-ddl) után fut, lásd spring.jpa.defer-datasource-initialization
+
+-- a cache bemelegítés rendezése (EmployeeRepository.findIdsOrderByModifiedAtDesc), a modified_at az alkalmazáson
+-- kívül beszúrt és a korábbi soroknál null, ezek a végére kerülnek
+-- a korábbi, @Index-szel létrehozott index nulls first, így a rendezést nem tudja kiszolgálni
+drop index if exists ix_employee_modified_at;
+create index if not exists ix_employee_modified_at_nulls_last on employee (modified_at desc nulls last, id desc);
@@ -0,0 +1,62 @@
+package empapp;
+
+import empapp.dto.EmployeeDto;
+import empapp.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheWarmUpTest {
+
+    private EmployeeRepository employeeRepository;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private CacheWarmUp cacheWarmUp;
+
+    @BeforeEach
+    void init() {
+        employeeRepository = mock(EmployeeRepository.class);
+        EmployeeService employeeService = mock(EmployeeService.class);
+        EmployeeMapper employeeMapper = mock(EmployeeMapper.class);
+        when(employeeMapper.toEmployeeDto(any())).thenAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            EmployeeDto employeeDto = new EmployeeDto();
+            employeeDto.setId(employee.getId());
+            employeeDto.setName(employee.getName());
+            return employeeDto;
+        });
+        cacheManager = new ConcurrentMapCacheManager("employees", "employee");
+        cacheWarmUp = new CacheWarmUp(new EmployeesProperties(), cacheManager, employeeService, employeeRepository,
+                employeeMapper);
+    }
+
+    @Test
+    void warmUpDoesNotKeepEmployeeDeletedBeforeItWasStored() {
+        when(employeeRepository.findIdsOrderByModifiedAtDesc(any())).thenReturn(Arrays.asList(2L, 1L));
+        when(employeeRepository.findAllWithAddressesByIdIn(anyCollection()))
+                .thenReturn(Arrays.asList(employee(2L, "John"), employee(1L, "Jack")));
+        // az 1-es törlése az olvasás után, a SET NX előtt commitolt
+        when(employeeRepository.findIdsByIdIn(anyCollection())).thenReturn(Collections.singletonList(2L));
+
+        cacheWarmUp.run(null);
+
+        assertThat(cacheManager.getCache("employee").get(2L)).isNotNull();
+        assertThat(cacheManager.getCache("employee").get(1L)).isNull();
+    }
+
+    private static Employee employee(long id, String name) {
+        Employee employee = new Employee(name);
+        employee.setId(id);
+        return employee;
+    }
+}
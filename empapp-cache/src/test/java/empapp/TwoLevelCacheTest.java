@@ -0,0 +1,72 @@
+package empapp;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private static final String KEY = "key";
+
+    private UpdatableRedisCache remote;
+
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void init() {
+        remote = mock(UpdatableRedisCache.class);
+        when(remote.getName()).thenReturn("employees");
+        invalidationPublisher = mock(CacheInvalidationPublisher.class);
+        cache = new TwoLevelCache(Caffeine.newBuilder().build(), remote, invalidationPublisher);
+    }
+
+    @Test
+    void updateDropsLocalEntryWhenRemoteEntryExpired() {
+        // az L1 a Redisből töltődött, azóta a Redis bejegyzés lejárt
+        when(remote.get(KEY)).thenReturn(new SimpleValueWrapper(Arrays.asList("John")));
+        assertThat(cache.get(KEY).get()).isEqualTo(Arrays.asList("John"));
+        when(remote.update(eq(KEY), any(), anyInt())).thenReturn(UpdatableRedisCache.UpdateResult.ABSENT);
+        when(remote.get(KEY)).thenReturn(null);
+
+        cache.update(KEY, value -> Arrays.asList("John", "Jack"), 5);
+
+        assertThat(cache.get(KEY)).isNull();
+        verify(invalidationPublisher).publish("employees", KEY);
+    }
+
+    @Test
+    void getDoesNotKeepValueInvalidatedDuringRemoteRead() {
+        // a Redis olvasás alatt egy másik node törli a bejegyzést
+        when(remote.get(KEY)).thenAnswer(invocation -> {
+            cache.invalidateLocal(KEY);
+            return new SimpleValueWrapper("John");
+        });
+
+        assertThat(cache.get(KEY).get()).isEqualTo("John");
+
+        when(remote.get(KEY)).thenReturn(null);
+        assertThat(cache.get(KEY)).isNull();
+    }
+
+    @Test
+    void getKeepsValueNotInvalidatedDuringRemoteRead() {
+        when(remote.get(KEY)).thenReturn(new SimpleValueWrapper("John"));
+        cache.get(KEY);
+
+        when(remote.get(KEY)).thenReturn(null);
+        assertThat(cache.get(KEY).get()).isEqualTo("John");
+    }
+}
@@ -0,0 +1,94 @@
+package empapp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UpdatableRedisCacheTest {
+
+    private RedisConnection connection;
+
+    private RedisScriptingCommands scriptingCommands;
+
+    private UpdatableRedisCache cache;
+
+    @BeforeEach
+    void init() {
+        connection = mock(RedisConnection.class);
+        scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        CacheStatisticsCollector statisticsCollector = CacheStatisticsCollector.create();
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory)
+                .withStatisticsCollector(statisticsCollector);
+        cache = new UpdatableRedisCache("employees", cacheWriter, RedisCacheConfiguration.defaultCacheConfig(),
+                connectionFactory, statisticsCollector, new EmployeesProperties.Refresh());
+    }
+
+    @Test
+    void getWithLoaderCountsHit() {
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.MULTI), eq(2), ArgumentMatchers.<byte[]>any()))
+                .thenReturn(Arrays.asList(-1L, RedisSerializer.java().serialize("John"), null));
+
+        assertThat(cache.get("key", () -> "Jack")).isEqualTo("John");
+
+        CacheStatistics statistics = cache.getStatistics();
+        assertThat(statistics.getGets()).isEqualTo(1);
+        assertThat(statistics.getHits()).isEqualTo(1);
+        assertThat(statistics.getMisses()).isZero();
+    }
+
+    @Test
+    void getWithLoaderCountsMissAndPut() {
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.MULTI), eq(2), ArgumentMatchers.<byte[]>any()))
+                .thenReturn(Arrays.asList(-2L, null, null));
+        when(connection.set(any(byte[].class), any(byte[].class), any(Expiration.class),
+                any(RedisStringCommands.SetOption.class))).thenReturn(true);
+        when(connection.exec()).thenReturn(Arrays.asList(true, true));
+
+        assertThat(cache.get("key", () -> "Jack")).isEqualTo("Jack");
+
+        CacheStatistics statistics = cache.getStatistics();
+        assertThat(statistics.getGets()).isEqualTo(1);
+        assertThat(statistics.getHits()).isZero();
+        assertThat(statistics.getMisses()).isEqualTo(1);
+        assertThat(statistics.getPuts()).isEqualTo(1);
+    }
+
+    @Test
+    void getWithLoaderSendsScriptWhenNotCachedByRedis() {
+        // a Redis újraindulása vagy SCRIPT FLUSH után
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.MULTI), eq(2), ArgumentMatchers.<byte[]>any()))
+                .thenThrow(new RedisSystemException("NOSCRIPT No matching script. Please use EVAL.", null));
+        when(scriptingCommands.eval(any(byte[].class), eq(ReturnType.MULTI), eq(2), ArgumentMatchers.<byte[]>any()))
+                .thenReturn(Arrays.asList(-1L, RedisSerializer.java().serialize("John"), null));
+
+        assertThat(cache.get("key", () -> "Jack")).isEqualTo("John");
+        verify(scriptingCommands).eval(any(byte[].class), eq(ReturnType.MULTI), anyInt(),
+                ArgumentMatchers.<byte[]>any());
+    }
+}
@@ -0,0 +1,89 @@
+package empapp.benchmark;
+
+import empapp.EmployeesApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserted employees per second, with one address each, through POST /api/employees/batch
+ * and through the same number of single POST /api/employees requests, against the application
+ * running on an in-memory H2 database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+// a teljes kéréskezelést a C2 egy CPU-n másfél percig fordítja, addig az eredmény folyamatosan nő
+@Warmup(iterations = 10, time = 10)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeBatchCreateBenchmark {
+
+    // egy invocation ennyi alkalmazottat vesz fel, az eredmény így sor/s
+    private static final int ROWS = 100;
+
+    private ConfigurableApplicationContext context;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    private String url;
+
+    private HttpEntity<String> batch;
+
+    private List<HttpEntity<String>> singles;
+
+    @Setup
+    public void setUp() {
+        context = SpringApplication.run(EmployeesApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:employees;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                // a migrációk PostgreSQL-esek (pg_trgm)
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                // az SQL naplózás költsége ne kerüljön a mérésbe
+                "--logging.level.org.hibernate.SQL=info");
+        url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/employees";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        List<String> employees = new ArrayList<>(ROWS);
+        singles = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String employee = "{\"name\": \"Employee " + i + "\", \"addresses\": [{\"city\": \"Budapest\"}]}";
+            employees.add(employee);
+            singles.add(new HttpEntity<>(employee, headers));
+        }
+        batch = new HttpEntity<>("[" + String.join(", ", employees) + "]", headers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public String createInBatch() {
+        return restTemplate.postForObject(url + "/batch", batch, String.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public String createOneByOne() {
+        String last = null;
+        for (HttpEntity<String> single : singles) {
+            last = restTemplate.postForObject(url, single, String.class);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,63 @@
+package empapp.benchmark;
+
+import empapp.EmployeeMapper;
+import empapp.EmployeeMapperImpl;
+import empapp.dto.CreateEmployeeCommand;
+import empapp.dto.EmployeeDto;
+import empapp.entity.Address;
+import empapp.entity.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeMapperBenchmark {
+
+    @Param({"1", "100", "10000", "100000"})
+    private int size;
+
+    private final EmployeeMapper employeeMapper = new EmployeeMapperImpl();
+
+    private Employee employee;
+
+    private List<Employee> employees;
+
+    private CreateEmployeeCommand command;
+
+    @Setup
+    public void setUp() {
+        employees = Employees.employees(size);
+        employee = employees.get(0);
+
+        // a setShoppingCartSampleParent ciklusa a címek számával arányos
+        List<Address> addresses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            addresses.add(new Address("City " + i));
+        }
+        command = new CreateEmployeeCommand();
+        command.setName("John Doe");
+        command.setAddresses(addresses);
+    }
+
+    @Benchmark
+    public EmployeeDto toEmployeeDto() {
+        return employeeMapper.toEmployeeDto(employee);
+    }
+
+    @Benchmark
+    public List<EmployeeDto> toEmployeesDto() {
+        return employeeMapper.toEmployeesDto(employees);
+    }
+
+    @Benchmark
+    public Employee toEmployee() {
+        return employeeMapper.toEmployee(command);
+    }
+}
@@ -0,0 +1,98 @@
+package empapp.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import empapp.dto.EmployeeDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmployeeSerializationBenchmark {
+
+    public enum Format {
+
+        JSON(JsonFactory::new), SMILE(SmileFactory::new), CBOR(CBORFactory::new);
+
+        private final Supplier<JsonFactory> factory;
+
+        Format(Supplier<JsonFactory> factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"1", "100", "10000", "100000"})
+    private int size;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private Format format;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private List<EmployeeDto> employees;
+
+    private byte[] payload;
+
+    private final CountingOutputStream outputStream = new CountingOutputStream();
+
+    @Setup
+    public void setUp() throws IOException {
+        // ahogy a spring.jackson.default-property-inclusion=non_null és a WebConfig konverterei beállítják
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .factory(format.factory.get())
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeDto.class);
+        writer = objectMapper.writerFor(type);
+        reader = objectMapper.readerFor(type);
+        employees = Employees.employeeDtos(size);
+        payload = writer.writeValueAsBytes(employees);
+        // a méret determinisztikus, nem kell mérni, a fork kimenetében jelenik meg
+        System.out.printf("%n%s payload, %d employees: %d bytes (%.1f bytes/employee)%n",
+                format, size, payload.length, (double) payload.length / size);
+    }
+
+    @Benchmark
+    public long writeEmployees() throws IOException {
+        writer.writeValue(outputStream, employees);
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public List<EmployeeDto> readEmployees() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
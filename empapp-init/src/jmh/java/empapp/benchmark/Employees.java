@@ -0,0 +1,56 @@
+package empapp.benchmark;
+
+import empapp.dto.AddressDto;
+import empapp.dto.EmployeeDto;
+import empapp.entity.Address;
+import empapp.entity.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class Employees {
+
+    static final int ADDRESSES_PER_EMPLOYEE = 2;
+
+    private Employees() {
+    }
+
+    static List<Employee> employees(int size) {
+        List<Employee> employees = new ArrayList<>(size);
+        long addressId = 1;
+        for (int i = 0; i < size; i++) {
+            Employee employee = new Employee("Employee " + i);
+            employee.setId((long) i + 1);
+            for (int j = 0; j < ADDRESSES_PER_EMPLOYEE; j++) {
+                Address address = new Address("City " + (i * j % 100));
+                address.setId(addressId++);
+                employee.addAddress(address);
+            }
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    // minden második alkalmazottnak nincs címlistája, hogy a non_null kihagyás is szerepeljen
+    static List<EmployeeDto> employeeDtos(int size) {
+        List<EmployeeDto> employees = new ArrayList<>(size);
+        long addressId = 1;
+        for (int i = 0; i < size; i++) {
+            EmployeeDto employee = new EmployeeDto();
+            employee.setId((long) i + 1);
+            employee.setName("Employee " + i);
+            if (i % 2 == 0) {
+                List<AddressDto> addresses = new ArrayList<>(ADDRESSES_PER_EMPLOYEE);
+                for (int j = 0; j < ADDRESSES_PER_EMPLOYEE; j++) {
+                    AddressDto address = new AddressDto();
+                    address.setId(addressId++);
+                    address.setCity("City " + (i * j % 100));
+                    addresses.add(address);
+                }
+                employee.setAddresses(addresses);
+            }
+            employees.add(employee);
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,25 @@
+package empapp;
+
+import empapp.entity.Address;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface AddressRepository extends JpaRepository<Address, Long> {
+
+    @QueryHints({@QueryHint(name = HINT_READONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query("select a from Address a where a.employee.id in :employeeIds order by a.id")
+    List<Address> findAllByEmployeeIdIn(Collection<Long> employeeIds);
+
+    @Modifying
+    @Query("delete from Address a where a.employee.id in :employeeIds")
+    int deleteAllByEmployeeIdIn(Collection<Long> employeeIds);
+}
@@ -1,15 +1,27 @@
 package empapp;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.protobuf.CodedOutputStream;
 import empapp.dto.CreateEmployeeCommand;
 import empapp.dto.EmployeeDto;
+import empapp.dto.EmployeesPageDto;
 import empapp.dto.UpdateEmployeeCommand;
+import empapp.proto.EmployeesProto;
 import io.swagger.v3.oas.annotations.Operation;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 
@@ -20,11 +32,91 @@ public class EmployeeController {
 
     private EmployeeService employeeService;
 
+    private ObjectMapper objectMapper;
+
+    private EmployeeProtobufMapper employeeProtobufMapper;
+
     @GetMapping
     public List<EmployeeDto> employees() {
         return employeeService.listEmployees();
     }
 
+    // a protobuf lista, ahogy az export, az adatbázisból streamel, a teljes lista nem kerül a memóriába
+    @GetMapping(produces = "application/x-protobuf")
+    @Operation(description = "lists employees as length-delimited protobuf messages")
+    public ResponseEntity<StreamingResponseBody> employeesAsProtobuf() {
+        return streamEmployeesAsProtobuf();
+    }
+
+    @GetMapping(params = {"limit", "!city"})
+    @Operation(description = "lists employees with keyset pagination, pass nextCursor as after to get the next page")
+    public EmployeesPageDto employees(@RequestParam(value = "after", defaultValue = "0") long after,
+                                      @RequestParam("limit") int limit) {
+        return employeeService.listEmployees(after, limit);
+    }
+
+    @GetMapping(params = "city")
+    @Operation(description = "lists employees having an address in the given city, with keyset pagination")
+    public EmployeesPageDto employeesByCity(@RequestParam("city") String city,
+                                            @RequestParam(value = "after", defaultValue = "0") long after,
+                                            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return employeeService.listEmployeesByCity(city, after, limit);
+    }
+
+    @GetMapping("/search")
+    @Operation(description = "searches employees by name prefix or substring, case insensitively, ordered by name, pass nextName as afterName and nextCursor as after to get the next page")
+    public EmployeesPageDto searchEmployees(@RequestParam("name") String name,
+                                            @RequestParam(value = "match", defaultValue = "PREFIX") NameMatch match,
+                                            @RequestParam(value = "afterName", defaultValue = "") String afterName,
+                                            @RequestParam(value = "after", defaultValue = "0") long after,
+                                            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return employeeService.searchEmployees(name, match, afterName, after, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "exports all employees as newline delimited JSON")
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        writer.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-protobuf")
+    @Operation(description = "exports all employees as length-delimited protobuf messages")
+    public ResponseEntity<StreamingResponseBody> exportEmployeesAsProtobuf() {
+        return streamEmployeesAsProtobuf();
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamEmployeesAsProtobuf() {
+        StreamingResponseBody body = outputStream -> {
+            CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+            employeeService.exportEmployees(employee -> {
+                try {
+                    EmployeeProtobufHttpMessageConverter.writeDelimited(employeeProtobufMapper.toEmployeeMessage(employee), output);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            output.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(ProtobufHttpMessageConverter.PROTOBUF)
+                .headers(headers -> EmployeeProtobufHttpMessageConverter.setProtoHeaders(headers, EmployeesProto.Employee.getDescriptor()))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public EmployeeDto findEmployeeById(@PathVariable("id") long id) {
         return employeeService.findEmployeeById(id);
@@ -37,6 +129,13 @@ public class EmployeeController {
         return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(employeeDto.getId()).toUri()).body(employeeDto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(description = "creates employees in JDBC batches")
+    public List<EmployeeDto> createEmployees(@RequestBody List<CreateEmployeeCommand> commands) {
+        return employeeService.createEmployees(commands);
+    }
+
     @PutMapping("/{id}") // idempotens
     public EmployeeDto updateEmployee(@PathVariable("id") long id, @RequestBody UpdateEmployeeCommand command) {
         return employeeService.updateEmployee(id, command);
@@ -48,4 +147,11 @@ public class EmployeeController {
         employeeService.deleteEmployee(id);
     }
 
+    @DeleteMapping(params = "ids")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(description = "deletes all the given employees, or none of them if any is missing")
+    public void deleteEmployees(@RequestParam("ids") List<Long> ids) {
+        employeeService.deleteEmployees(ids);
+    }
+
 }
@@ -0,0 +1,69 @@
+package empapp;
+
+import empapp.dto.EmployeeDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Coalesces concurrent EmployeeService.findEmployeeById calls for the same id into one
+ * database load. Runs outside the transaction, so the waiting callers do not hold a connection.
+ * Calls after a committed update or delete of the employee do not join a load started before it.
+ */
+@Aspect
+@Component
+// a tranzakció advice (LOWEST_PRECEDENCE) előtt, a várakozók nem foglalnak kapcsolatot, és az időmérés csak
+// a valódi betöltést méri, de az ExposeInvocationInterceptor (HIGHEST_PRECEDENCE + 1) után, különben az args nem köthető
+@Order(0)
+@ConditionalOnProperty(name = "employees.coalescing.enabled", havingValue = "true")
+public class EmployeeLookupCoalescing {
+
+    private final SingleFlight<Long, EmployeeDto> lookups;
+
+    public EmployeeLookupCoalescing(MeterRegistry meterRegistry, EmployeeMapper employeeMapper) {
+        lookups = new SingleFlight<>(employeeMapper::copyEmployeeDto);
+        FunctionCounter.builder("employees.coalescing.loads", lookups, SingleFlight::getLoads)
+                .description("findEmployeeById loads run by the coalescing layer")
+                .register(meterRegistry);
+        FunctionCounter.builder("employees.coalescing.saved", lookups, SingleFlight::getJoined)
+                .description("findEmployeeById calls served by a concurrent load of the same id")
+                .register(meterRegistry);
+        Gauge.builder("employees.coalescing.in.flight", lookups, SingleFlight::getInFlight)
+                .description("findEmployeeById loads in flight")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(public empapp.dto.EmployeeDto empapp.EmployeeService.findEmployeeById(long)) && args(id)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, long id) {
+        return lookups.execute(id, () -> {
+            try {
+                return (EmployeeDto) joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        });
+    }
+
+    // a tranzakció advice-on kívül, tehát a commit után: a közben induló betöltés már a módosítást olvassa
+    @After("execution(* empapp.EmployeeService.updateEmployee(long, ..)) && args(id, ..)"
+            + " || execution(* empapp.EmployeeService.deleteEmployee(long)) && args(id)")
+    public void forget(long id) {
+        lookups.forget(id);
+    }
+
+    @After("execution(* empapp.EmployeeService.deleteEmployees(java.util.Collection)) && args(ids)")
+    public void forgetAll(Collection<Long> ids) {
+        ids.forEach(lookups::forget);
+    }
+}
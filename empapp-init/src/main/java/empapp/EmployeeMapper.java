@@ -7,8 +7,11 @@ import empapp.dto.EmployeeDto;
 import empapp.entity.Address;
 import empapp.entity.Employee;
 import org.mapstruct.AfterMapping;
+import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
 
 import java.util.List;
 
@@ -19,8 +22,22 @@ public interface EmployeeMapper {
 
     List<EmployeeDto> toEmployeesDto(List<Employee> employees);
 
+    @Named("withoutAddresses")
+    @Mapping(target = "addresses", ignore = true)
+    EmployeeDto toEmployeeDtoWithoutAddresses(Employee employee);
+
+    @IterableMapping(qualifiedByName = "withoutAddresses")
+    List<EmployeeDto> toEmployeesDtoWithoutAddresses(List<Employee> employees);
+
     AddressDto toAddressDto(Address address);
 
+    // a címlistát is másolja
+    EmployeeDto copyEmployeeDto(EmployeeDto employee);
+
+    AddressDto copyAddressDto(AddressDto address);
+
+    List<AddressDto> copyAddressesDto(List<AddressDto> addresses);
+
     List<AddressDto> toAddressesDto(List<Address> addresses);
 
     Employee toEmployee(CreateEmployeeCommand command);
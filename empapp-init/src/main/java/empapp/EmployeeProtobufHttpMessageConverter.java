@@ -0,0 +1,111 @@
+package empapp;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.MessageLite;
+import empapp.dto.CreateEmployeeCommand;
+import empapp.dto.EmployeeDto;
+import empapp.proto.EmployeesProto;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@link CreateEmployeeCommand} and writes {@link EmployeeDto} as {@code application/x-protobuf},
+ * lists as consecutive length-delimited messages.
+ */
+public class EmployeeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final EmployeeProtobufMapper employeeProtobufMapper;
+
+    public EmployeeProtobufHttpMessageConverter(EmployeeProtobufMapper employeeProtobufMapper) {
+        super(ProtobufHttpMessageConverter.PROTOBUF);
+        this.employeeProtobufMapper = employeeProtobufMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EmployeeDto.class == clazz || CreateEmployeeCommand.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return (type == CreateEmployeeCommand.class || isListOf(type, CreateEmployeeCommand.class)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (clazz == EmployeeDto.class || type != null && isListOf(type, EmployeeDto.class)) && canWrite(mediaType);
+    }
+
+    // a Spring ezzel gyűjti a választható típusokat, listánál az elemtípust a generikus canRead / canWrite ellenőrzi
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : super.getSupportedMediaTypes(clazz);
+    }
+
+    private static boolean isListOf(Type type, Class<?> elementClass) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass()) && resolvableType.getGeneric(0).toClass() == elementClass;
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        if (type == CreateEmployeeCommand.class) {
+            return readInternal(CreateEmployeeCommand.class, inputMessage);
+        }
+        InputStream body = inputMessage.getBody();
+        List<CreateEmployeeCommand> commands = new ArrayList<>();
+        EmployeesProto.CreateEmployeeCommand message;
+        // üres stream vagy az utolsó üzenet után null
+        while ((message = EmployeesProto.CreateEmployeeCommand.parseDelimitedFrom(body)) != null) {
+            commands.add(employeeProtobufMapper.toCreateEmployeeCommand(message));
+        }
+        return commands;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        if (clazz != CreateEmployeeCommand.class) {
+            throw new HttpMessageNotReadableException("Can not read " + clazz.getName() + " as protobuf", inputMessage);
+        }
+        return employeeProtobufMapper.toCreateEmployeeCommand(EmployeesProto.CreateEmployeeCommand.parseFrom(inputMessage.getBody()));
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        setProtoHeaders(outputMessage.getHeaders(), EmployeesProto.Employee.getDescriptor());
+        CodedOutputStream output = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (value instanceof List) {
+            for (Object employee : (List<?>) value) {
+                writeDelimited(employeeProtobufMapper.toEmployeeMessage((EmployeeDto) employee), output);
+            }
+        } else {
+            employeeProtobufMapper.toEmployeeMessage((EmployeeDto) value).writeTo(output);
+        }
+        output.flush();
+    }
+
+    // ugyanaz a formátum, mint a MessageLite.writeDelimitedTo, de üzenetenként új puffer nélkül
+    static void writeDelimited(MessageLite message, CodedOutputStream output) throws IOException {
+        output.writeUInt32NoTag(message.getSerializedSize());
+        message.writeTo(output);
+    }
+
+    // ahogy a Spring ProtobufHttpMessageConverter is jelzi a kliensnek
+    static void setProtoHeaders(HttpHeaders headers, Descriptors.Descriptor descriptor) {
+        headers.set(ProtobufHttpMessageConverter.X_PROTOBUF_SCHEMA_HEADER, descriptor.getFile().getName());
+        headers.set(ProtobufHttpMessageConverter.X_PROTOBUF_MESSAGE_HEADER, descriptor.getFullName());
+    }
+}
@@ -0,0 +1,59 @@
+package empapp;
+
+import empapp.dto.AddressDto;
+import empapp.dto.CreateEmployeeCommand;
+import empapp.dto.EmployeeDto;
+import empapp.entity.Address;
+import empapp.proto.EmployeesProto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the DTOs to and from the messages of {@code employees.proto}.
+ */
+// kézzel, a MapStruct nem kezeli a protobuf builderek null-ra dobott kivételeit és ismétlődő mezőit
+@Component
+public class EmployeeProtobufMapper {
+
+    public EmployeesProto.Employee toEmployeeMessage(EmployeeDto employee) {
+        EmployeesProto.Employee.Builder builder = EmployeesProto.Employee.newBuilder();
+        if (employee.getId() != null) {
+            builder.setId(employee.getId());
+        }
+        if (employee.getName() != null) {
+            builder.setName(employee.getName());
+        }
+        if (employee.getAddresses() != null) {
+            for (AddressDto address : employee.getAddresses()) {
+                builder.addAddresses(toAddressMessage(address));
+            }
+        }
+        return builder.build();
+    }
+
+    private EmployeesProto.Address toAddressMessage(AddressDto address) {
+        EmployeesProto.Address.Builder builder = EmployeesProto.Address.newBuilder();
+        if (address.getId() != null) {
+            builder.setId(address.getId());
+        }
+        if (address.getCity() != null) {
+            builder.setCity(address.getCity());
+        }
+        return builder.build();
+    }
+
+    public CreateEmployeeCommand toCreateEmployeeCommand(EmployeesProto.CreateEmployeeCommand message) {
+        CreateEmployeeCommand command = new CreateEmployeeCommand();
+        if (message.hasName()) {
+            command.setName(message.getName());
+        }
+        List<Address> addresses = new ArrayList<>(message.getAddressesCount());
+        for (EmployeesProto.CreateAddress address : message.getAddressesList()) {
+            addresses.add(new Address(address.hasCity() ? address.getCity() : null));
+        }
+        command.setAddresses(addresses);
+        return command;
+    }
+}
@@ -0,0 +1,120 @@
+package empapp;
+
+import empapp.dto.AddressDto;
+import empapp.dto.EmployeeDto;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@AllArgsConstructor
+public class EmployeeQueryRepository {
+
+    private EntityManager entityManager;
+
+    public List<EmployeeDto> findAll() {
+        List<EmployeeDto> employees = toEmployeeDtos(entityManager
+                .createQuery("select e.id as id, e.name as name from Employee e order by e.id", Tuple.class)
+                .getResultList());
+        addAddresses(employees, entityManager
+                .createQuery("select a.employee.id as employeeId, a.id as id, a.city as city from Address a order by a.id", Tuple.class)
+                .getResultList());
+        return employees;
+    }
+
+    public List<EmployeeDto> findPageAfterWithoutAddresses(long after, int limit) {
+        return toEmployeeDtos(entityManager
+                .createQuery("select e.id as id, e.name as name from Employee e where e.id > :after order by e.id", Tuple.class)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    // natív, mint az EmployeeRepository.findPageByNameLikeAfter
+    public List<EmployeeDto> findPageByNameLikeAfterWithoutAddresses(String pattern, String afterName, long after, int limit) {
+        return toEmployeeDtos(entityManager
+                .createNativeQuery("select e.id as id, e.name as name from employee e " +
+                        "where lower(e.name) collate \"C\" like :pattern escape '\\' " +
+                        "and (lower(e.name) collate \"C\", e.id) > (lower(:afterName) collate \"C\", :after) " +
+                        "order by lower(e.name) collate \"C\", e.id", Tuple.class)
+                .setParameter("pattern", pattern)
+                .setParameter("afterName", afterName)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    public List<EmployeeDto> findPageByCityAfterWithoutAddresses(String city, long after, int limit) {
+        return toEmployeeDtos(entityManager
+                .createQuery("select e.id as id, e.name as name from Employee e where e.id > :after " +
+                        "and exists (select a.id from Address a where a.employee = e and a.city = :city) order by e.id", Tuple.class)
+                .setParameter("city", city)
+                .setParameter("after", after)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    public Optional<EmployeeDto> findByIdWithoutAddresses(long id) {
+        return toEmployeeDtos(entityManager
+                .createQuery("select e.id as id, e.name as name from Employee e where e.id = :id", Tuple.class)
+                .setParameter("id", id)
+                .getResultList())
+                .stream()
+                .findFirst();
+    }
+
+    public void loadAddresses(List<EmployeeDto> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(employees.size());
+        for (EmployeeDto employee : employees) {
+            ids.add(employee.getId());
+        }
+        addAddresses(employees, entityManager
+                .createQuery("select a.employee.id as employeeId, a.id as id, a.city as city from Address a " +
+                        "where a.employee.id in :ids order by a.id", Tuple.class)
+                .setParameter("ids", ids)
+                .getResultList());
+    }
+
+    private List<EmployeeDto> toEmployeeDtos(List<Tuple> tuples) {
+        if (tuples.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<EmployeeDto> employees = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            EmployeeDto employee = new EmployeeDto();
+            // a natív lekérdezés bigint oszlopa BigInteger
+            employee.setId(tuple.get("id", Number.class).longValue());
+            employee.setName(tuple.get("name", String.class));
+            employee.setAddresses(new ArrayList<>());
+            employees.add(employee);
+        }
+        return employees;
+    }
+
+    private void addAddresses(List<EmployeeDto> employees, List<Tuple> tuples) {
+        Map<Long, EmployeeDto> employeesById = new LinkedHashMap<>(employees.size() * 2);
+        for (EmployeeDto employee : employees) {
+            employeesById.put(employee.getId(), employee);
+        }
+        for (Tuple tuple : tuples) {
+            EmployeeDto employee = employeesById.get(tuple.get("employeeId", Long.class));
+            if (employee != null) {
+                AddressDto address = new AddressDto();
+                address.setId(tuple.get("id", Long.class));
+                address.setCity(tuple.get("city", String.class));
+                employee.getAddresses().add(address);
+            }
+        }
+    }
+}
@@ -1,17 +1,60 @@
 package empapp;
 
 import empapp.entity.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
-    @Query("select distinct e from Employee e left join fetch e.addresses")
-    List<Employee> findAllWithAddresses();
+    // csak a hibernate.cache.use_query_cache bekapcsolásakor kerül a query cache-be
+    @QueryHints({@QueryHint(name = HINT_READONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"),
+            @QueryHint(name = HINT_CACHEABLE, value = "true")})
+    @Query("select e from Employee e order by e.id")
+    List<Employee> findAllOrderById();
+
+    @QueryHints({@QueryHint(name = HINT_READONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query("select e from Employee e where e.id > :after order by e.id")
+    List<Employee> findPageAfter(long after, Pageable pageable);
+
+    // JPQL-ben nincs collate és sor összehasonlítás, ezért natív
+    @QueryHints({@QueryHint(name = HINT_READONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query(value = "select e.* from employee e where lower(e.name) collate \"C\" like :pattern escape '\\' " +
+            "and (lower(e.name) collate \"C\", e.id) > (lower(:afterName) collate \"C\", :after) " +
+            "order by lower(e.name) collate \"C\", e.id", nativeQuery = true)
+    List<Employee> findPageByNameLikeAfter(String pattern, String afterName, long after, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_READONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query("select e from Employee e where e.id > :after " +
+            "and exists (select a.id from Address a where a.employee = e and a.city = :city) order by e.id")
+    List<Employee> findPageByCityAfter(String city, long after, Pageable pageable);
+
+    // sorrendezés id szerint kell, hogy a kollekció fetch ne törje szét az alkalmazottakat
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select e from Employee e left join fetch e.addresses order by e.id")
+    Stream<Employee> streamAllWithAddresses();
+
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("update Employee e set e.name = :name where e.id = :id")
+    int updateNameById(long id, String name);
 
-    @Query("select distinct e from Employee e left join fetch e.addresses where e.id = :id")
-    Optional<Employee> findByIdWithAddresses(Long id);
+    // a címeket előbb törölni kell, a bulk delete nem kaszkádol
+    @Modifying
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
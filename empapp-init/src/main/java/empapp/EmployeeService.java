@@ -1,49 +1,267 @@
 package empapp;
 
+import empapp.dto.AddressDto;
 import empapp.dto.CreateEmployeeCommand;
 import empapp.dto.EmployeeDto;
+import empapp.dto.EmployeesPageDto;
 import empapp.dto.UpdateEmployeeCommand;
 import empapp.entity.Employee;
 import lombok.AllArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 public class EmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private EmployeeRepository employeeRepository;
 
+    private AddressRepository addressRepository;
+
+    private EmployeeQueryRepository employeeQueryRepository;
+
     private EmployeeMapper employeeMapper;
 
+    private EmployeesProperties employeesProperties;
+
+    private EntityManager entityManager;
+
     public EmployeeDto createEmployee(CreateEmployeeCommand command) {
         Employee employee = employeeMapper.toEmployee(command);
         employeeRepository.save(employee);
         return employeeMapper.toEmployeeDto(employee);
     }
 
+    @Transactional
+    public List<EmployeeDto> createEmployees(List<CreateEmployeeCommand> commands) {
+        int batchSize = Math.max(jdbcBatchSize(), 1);
+        List<EmployeeDto> employees = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            Employee employee = employeeMapper.toEmployee(commands.get(i));
+            // szekvenciás id-nál az azonosító már a persist-nél kiosztásra kerül
+            entityManager.persist(employee);
+            employees.add(employeeMapper.toEmployeeDto(employee));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return employees;
+    }
+
+    @Transactional(readOnly = true)
     public List<EmployeeDto> listEmployees() {
-        return employeeMapper.toEmployeesDto(employeeRepository.findAllWithAddresses());
+        if (isProjection()) {
+            return employeeQueryRepository.findAll();
+        }
+        List<EmployeeDto> employees = employeeMapper.toEmployeesDtoWithoutAddresses(employeeRepository.findAllOrderById());
+        // a címek a lapozáshoz hasonlóan külön lekérdezésekkel, egy IN listában legfeljebb MAX_PAGE_SIZE azonosító
+        for (int from = 0; from < employees.size(); from += MAX_PAGE_SIZE) {
+            loadAddresses(employees.subList(from, Math.min(from + MAX_PAGE_SIZE, employees.size())));
+        }
+        return employees;
     }
 
+    @Transactional(readOnly = true)
+    public EmployeesPageDto listEmployees(long after, int limit) {
+        int pageSize = pageSize(limit);
+        // eggyel többet kérünk le, így kiderül, van-e következő oldal
+        List<EmployeeDto> employees = isProjection()
+                ? employeeQueryRepository.findPageAfterWithoutAddresses(after, pageSize + 1)
+                : employeeMapper.toEmployeesDtoWithoutAddresses(
+                        employeeRepository.findPageAfter(after, PageRequest.of(0, pageSize + 1)));
+        return toPage(employees, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeesPageDto listEmployeesByCity(String city, long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<EmployeeDto> employees = isProjection()
+                ? employeeQueryRepository.findPageByCityAfterWithoutAddresses(city, after, pageSize + 1)
+                : employeeMapper.toEmployeesDtoWithoutAddresses(
+                        employeeRepository.findPageByCityAfter(city, after, PageRequest.of(0, pageSize + 1)));
+        return toPage(employees, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeesPageDto searchEmployees(String name, NameMatch match, String afterName, long after, int limit) {
+        int pageSize = pageSize(limit);
+        String pattern = match.toPattern(name);
+        // a ("", 0) kurzorral az index scan az index elejéről indulna, nem a prefixtől
+        if (afterName.isEmpty() && after == 0) {
+            afterName = match.firstName(name);
+        }
+        List<EmployeeDto> employees = isProjection()
+                ? employeeQueryRepository.findPageByNameLikeAfterWithoutAddresses(pattern, afterName, after, pageSize + 1)
+                : employeeMapper.toEmployeesDtoWithoutAddresses(employeeRepository.findPageByNameLikeAfter(
+                        pattern, afterName, after, PageRequest.of(0, pageSize + 1)));
+        EmployeesPageDto page = toPage(employees, pageSize);
+        // név szerint rendezett, a kurzor az utolsó (név, id) pár, a lower()-t az adatbázis alkalmazza rá
+        if (page.getNextCursor() != null) {
+            page.setNextName(page.getEmployees().get(pageSize - 1).getName());
+        }
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<EmployeeDto> consumer) {
+        try (Stream<Employee> employees = employeeRepository.streamAllWithAddresses()) {
+            employees.forEach(employee -> {
+                consumer.accept(employeeMapper.toEmployeeDto(employee));
+                // a cascade a címeket is leválasztja, így a persistence context nem nő
+                entityManager.detach(employee);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
     public EmployeeDto findEmployeeById(long id) {
-        return employeeMapper.toEmployeeDto(employeeRepository.findByIdWithAddresses(id)
-                        .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id)));
+        if (isProjection()) {
+            EmployeeDto employee = employeeQueryRepository.findByIdWithoutAddresses(id)
+                    .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id));
+            employeeQueryRepository.loadAddresses(Collections.singletonList(employee));
+            return employee;
+        }
+        // egy alkalmazottnál a lazy kollekció is egy lekérdezés, viszont így a second-level cache-ből is jöhet
+        return employeeMapper.toEmployeeDto(employeeRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id)));
     }
 
     @Transactional
     public EmployeeDto updateEmployee(long id, UpdateEmployeeCommand command) {
-        Employee employeeToModify = employeeRepository
-                .findById(id)
-                .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id));
-        employeeToModify.setName(command.getName());
-        return employeeMapper.toEmployeeDto(employeeToModify);
+        if (isSecondLevelCacheEnabled()) {
+            // a bulk update a teljes Employee régiót üríti, a managed entitás módosítása csak ezt a bejegyzést
+            // frissíti; a betöltés cache találat, így ez is egyetlen update
+            Employee employee = employeeRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id));
+            employee.setName(command.getName());
+            return employeeMapper.toEmployeeDto(employee);
+        }
+        if (employeeRepository.updateNameById(id, command.getName()) == 0) {
+            throw new NotFoundException("Employee not found with id: " + id);
+        }
+        return findEmployeeById(id);
     }
 
+    @Transactional
     public void deleteEmployee(long id) {
-        Employee employee = employeeRepository.findByIdWithAddresses(id)
-                .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id));
-        employeeRepository.delete(employee);
+        if (isSecondLevelCacheEnabled()) {
+            // a bulk delete az Employee, Address és Employee.addresses régiókat üríti, a cascade csak ezekből a
+            // bejegyzésekből töröl; a címek törlése egy batch
+            employeeRepository.delete(employeeRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Employee not found with id: " + id)));
+            return;
+        }
+        List<Long> ids = Collections.singletonList(id);
+        addressRepository.deleteAllByEmployeeIdIn(ids);
+        if (employeeRepository.deleteAllByIdIn(ids) == 0) {
+            throw new NotFoundException("Employee not found with id: " + id);
+        }
+    }
+
+    @Transactional
+    public void deleteEmployees(Collection<Long> ids) {
+        Set<Long> idsToDelete = new LinkedHashSet<>(ids);
+        if (idsToDelete.isEmpty()) {
+            return;
+        }
+        if (isSecondLevelCacheEnabled()) {
+            deleteEmployeesByEntity(idsToDelete);
+            return;
+        }
+        Set<Long> missingIds = new LinkedHashSet<>(idsToDelete);
+        missingIds.removeAll(employeeRepository.findIdsByIdIn(idsToDelete));
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Employees not found with ids: " + missingIds);
+        }
+        addressRepository.deleteAllByEmployeeIdIn(idsToDelete);
+        if (employeeRepository.deleteAllByIdIn(idsToDelete) != idsToDelete.size()) {
+            throw new NotFoundException("Employees not found with ids: " + idsToDelete);
+        }
+    }
+
+    // egyenként a second-level cache-ből töltődnek, ahogy a deleteEmployee-ban
+    private void deleteEmployeesByEntity(Set<Long> ids) {
+        List<Employee> employees = new ArrayList<>(ids.size());
+        Set<Long> missingIds = new LinkedHashSet<>();
+        for (long id : ids) {
+            Optional<Employee> employee = employeeRepository.findById(id);
+            if (employee.isPresent()) {
+                employees.add(employee.get());
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            throw new NotFoundException("Employees not found with ids: " + missingIds);
+        }
+        employeeRepository.deleteAll(employees);
+    }
+
+    private boolean isSecondLevelCacheEnabled() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions()
+                .isSecondLevelCacheEnabled();
+    }
+
+    private boolean isProjection() {
+        return employeesProperties.getReadStrategy() == ReadStrategy.PROJECTION;
+    }
+
+    private int pageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
+
+    private EmployeesPageDto toPage(List<EmployeeDto> employees, int pageSize) {
+        Long nextCursor = null;
+        if (employees.size() > pageSize) {
+            employees = employees.subList(0, pageSize);
+            nextCursor = employees.get(pageSize - 1).getId();
+        }
+        loadAddresses(employees);
+        return new EmployeesPageDto(employees, nextCursor);
+    }
+
+    // join helyett külön, egyetlen IN lekérdezéssel töltjük be az oldal címeit
+    private void loadAddresses(List<EmployeeDto> employees) {
+        if (isProjection()) {
+            employeeQueryRepository.loadAddresses(employees);
+            return;
+        }
+        if (employees.isEmpty()) {
+            return;
+        }
+        List<Long> ids = employees.stream().map(EmployeeDto::getId).collect(Collectors.toList());
+        Map<Long, List<AddressDto>> addresses = addressRepository.findAllByEmployeeIdIn(ids).stream()
+                .collect(Collectors.groupingBy(address -> address.getEmployee().getId(),
+                        Collectors.mapping(employeeMapper::toAddressDto, Collectors.toList())));
+        for (EmployeeDto employee : employees) {
+            employee.setAddresses(addresses.getOrDefault(employee.getId(), new ArrayList<>()));
+        }
+    }
+
+    private int jdbcBatchSize() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions()
+                .getJdbcBatchSize();
     }
 }
@@ -0,0 +1,83 @@
+package empapp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every public EmployeeService method and counts the calls ending in NotFoundException.
+ * The meters are registered up front, so recording a call does not look up or build meters.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "employees.metrics.enabled", havingValue = "true")
+public class EmployeeServiceMetrics {
+
+    private final Map<Method, Timer> timers = new HashMap<>();
+
+    private final Map<Method, Counter> notFoundCounters = new HashMap<>();
+
+    public EmployeeServiceMetrics(MeterRegistry meterRegistry) {
+        Method[] methods = EmployeeService.class.getDeclaredMethods();
+        for (Method method : methods) {
+            if (!Modifier.isPublic(method.getModifiers()) || method.isSynthetic()) {
+                continue;
+            }
+            String name = methodTag(method, methods);
+            timers.put(method, Timer.builder("employees.service")
+                    .description("Duration of the EmployeeService calls")
+                    .tag("method", name)
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry));
+            notFoundCounters.put(method, Counter.builder("employees.service.not.found")
+                    .description("EmployeeService calls ending in NotFoundException")
+                    .tag("method", name)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("execution(public * empapp.EmployeeService.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer timer = timers.get(method);
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (NotFoundException e) {
+            notFoundCounters.get(method).increment();
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String methodTag(Method method, Method[] methods) {
+        boolean overloaded = Arrays.stream(methods)
+                .anyMatch(other -> other != method && other.getName().equals(method.getName()));
+        if (!overloaded) {
+            return method.getName();
+        }
+        // A listEmployees() és a lapozó listEmployees(long,int) válaszideje nem keverhető
+        return Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+}
@@ -2,9 +2,11 @@ package empapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Configuration;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class EmployeesApplication
 {
 
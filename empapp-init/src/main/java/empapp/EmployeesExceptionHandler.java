@@ -24,4 +24,16 @@ public class EmployeesExceptionHandler implements ProblemHandling {
                 .build();
         return this.create(exception, problem, request);
     }
+
+    @ExceptionHandler
+    ResponseEntity<Problem> handleException(SqlBudgetExceededException exception, NativeWebRequest request) {
+        Problem problem =
+            Problem.builder()
+                .withType(URI.create("employees/sql-budget-exceeded"))
+                .withTitle("SQL budget exceeded")
+                .withStatus(Status.INTERNAL_SERVER_ERROR)
+                .withDetail(exception.getMessage())
+                .build();
+        return this.create(exception, problem, request);
+    }
 }
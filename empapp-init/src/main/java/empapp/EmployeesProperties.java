@@ -0,0 +1,39 @@
+package empapp;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpMethod;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties("employees")
+@Data
+public class EmployeesProperties {
+
+    private ReadStrategy readStrategy = ReadStrategy.ENTITY;
+
+    private Sql sql = new Sql();
+
+    @Data
+    public static class Sql {
+
+        /**
+         * Maximum number of SQL statements per request, by HTTP method and handler
+         * pattern, e.g. employees.sql.budget.get[/api/employees/{id}]=2. Handlers sharing
+         * a pattern are told apart by the params of their mapping, e.g.
+         * employees.sql.budget.get[/api/employees?city]=2
+         */
+        private Map<HttpMethod, Map<String, Integer>> budget = new EnumMap<>(HttpMethod.class);
+
+        /**
+         * Fail the statement exceeding the budget instead of only logging it, for integration tests.
+         */
+        private boolean failOnBudgetExceeded = false;
+
+        public Integer getBudget(HttpMethod method, String handler) {
+            return budget.getOrDefault(method, Collections.emptyMap()).get(handler);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package empapp;
+
+import java.util.Locale;
+
+public enum NameMatch {
+
+    // a (lower(name) collate "C", id) btree indexet használja
+    PREFIX {
+        @Override
+        String toPattern(String name) {
+            return escape(name) + "%";
+        }
+
+        // minden találat legalább a keresett név, az index scan innen indulhat
+        @Override
+        String firstName(String name) {
+            return name;
+        }
+    },
+
+    // a lower(name) collate "C" gin_trgm_ops trigram indexet használja
+    CONTAINS {
+        @Override
+        String toPattern(String name) {
+            return "%" + escape(name) + "%";
+        }
+
+        @Override
+        String firstName(String name) {
+            return "";
+        }
+    };
+
+    abstract String toPattern(String name);
+
+    // az első oldal kurzorának neve, a lower()-t az adatbázis alkalmazza rá
+    abstract String firstName(String name);
+
+    private static String escape(String name) {
+        return name.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,10 @@
+package empapp;
+
+public enum ReadStrategy {
+
+    // entitások betöltése és MapStruct mapping
+    ENTITY,
+
+    // DTO-k közvetlenül a lekérdezés tuple-jeiből, persistence context nélkül
+    PROJECTION
+}
@@ -0,0 +1,83 @@
+package empapp;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the bytes allocated by the request thread while a request is handled,
+ * so the read strategies can be compared under the same load. Allocation includes
+ * short-lived garbage; the objects retained by the request are approximated by
+ * {@code employees.request.hibernate.entities.retained}.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.metrics.allocation.enabled", havingValue = "true")
+public class RequestAllocationInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = RequestAllocationInterceptor.class.getName() + ".start";
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    private final MeterRegistry meterRegistry;
+
+    private final EmployeesProperties employeesProperties;
+
+    // metódus és uri minta szerint, a kérés csak kikeresi a summaryt
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RequestAllocationInterceptor(MeterRegistry meterRegistry, EmployeesProperties employeesProperties) {
+        this.meterRegistry = meterRegistry;
+        this.employeesProperties = employeesProperties;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadMXBean = bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled()
+                ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (threadMXBean != null) {
+            long allocated = allocatedBytes();
+            // virtuális szálra nem mérhető, -1
+            if (allocated >= 0) {
+                request.setAttribute(START_ATTRIBUTE, allocated);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        summary(request.getMethod(), uri != null ? uri.toString() : "UNKNOWN")
+                .record(allocatedBytes() - (Long) start);
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return summaries.computeIfAbsent(method + " " + uri, key -> DistributionSummary.builder("employees.request.allocated")
+                .description("Bytes allocated by the request thread while handling the request")
+                .baseUnit("bytes")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("strategy", employeesProperties.getReadStrategy().name())
+                .register(meterRegistry));
+    }
+
+    private long allocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,80 @@
+package empapp;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the Hibernate statements, loaded entities, flushes and retained entities of the
+ * request thread per request. The work of the async export thread is not included.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.metrics.enabled", havingValue = "true")
+@AllArgsConstructor
+public class RequestSessionStatisticsInterceptor implements HandlerInterceptor {
+
+    private final SessionStatisticsInterceptor sessionStatisticsInterceptor;
+
+    private final MeterRegistry meterRegistry;
+
+    // metódus és uri minta szerint, a kérés csak kikeresi a summarykat
+    private final Map<String, Summaries> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sessionStatisticsInterceptor.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SessionStatisticsInterceptor.Counts counts = sessionStatisticsInterceptor.current();
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Summaries requestSummaries = summaries(request.getMethod(), uri != null ? uri.toString() : "UNKNOWN");
+        requestSummaries.statements.record(counts.getStatements());
+        requestSummaries.entitiesLoaded.record(counts.getEntitiesLoaded());
+        requestSummaries.flushes.record(counts.getFlushes());
+        requestSummaries.entitiesRetained.record(counts.getEntitiesRetained());
+    }
+
+    private Summaries summaries(String method, String uri) {
+        return summaries.computeIfAbsent(method + " " + uri, key -> {
+            Tags tags = Tags.of("method", method, "uri", uri);
+            return new Summaries(
+                    summary("employees.request.hibernate.statements", "JDBC statements prepared by Hibernate while handling the request", tags),
+                    summary("employees.request.hibernate.entities.loaded", "Entities loaded by Hibernate while handling the request", tags),
+                    summary("employees.request.hibernate.flushes", "Hibernate session flushes while handling the request", tags),
+                    summary("employees.request.hibernate.entities.retained",
+                            "Largest number of entities held in the persistence context at the end of a transaction of the request", tags));
+        });
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    @AllArgsConstructor
+    private static class Summaries {
+
+        private final DistributionSummary statements;
+
+        private final DistributionSummary entitiesLoaded;
+
+        private final DistributionSummary flushes;
+
+        private final DistributionSummary entitiesRetained;
+    }
+}
@@ -0,0 +1,40 @@
+package empapp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import lombok.AllArgsConstructor;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Exposes hits, misses, puts and evictions of the Hibernate second-level cache regions
+ * as cache.* meters, tagged with the region name.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+@AllArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory)) {
+            return;
+        }
+        CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName), "cacheManager", "hibernate");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package empapp;
+
+import lombok.Getter;
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.Type;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Counts the statements, loaded entities and flushes of all Hibernate sessions of the
+ * current thread, until the next reset, and keeps the largest number of entities retained
+ * in a persistence context at the end of a transaction. Registered as the session factory
+ * scoped interceptor.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.metrics.enabled", havingValue = "true")
+public class SessionStatisticsInterceptor extends EmptyInterceptor implements HibernatePropertiesCustomizer {
+
+    private final transient ThreadLocal<Counts> counts = ThreadLocal.withInitial(Counts::new);
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.INTERCEPTOR, this);
+    }
+
+    public Counts reset() {
+        Counts current = counts.get();
+        current.statements = 0;
+        current.entitiesLoaded = 0;
+        current.flushes = 0;
+        current.entitiesRetained = 0;
+        return current;
+    }
+
+    public Counts current() {
+        return counts.get();
+    }
+
+    @Override
+    public String onPrepareStatement(String sql) {
+        counts.get().statements++;
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        counts.get().entitiesLoaded++;
+        return false;
+    }
+
+    @Override
+    public void postFlush(Iterator entities) {
+        counts.get().flushes++;
+    }
+
+    @Override
+    public void beforeTransactionCompletion(Transaction tx) {
+        // a Transaction nem adja ki a sessiont, a Spring a szálhoz köti az EntityManagert
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder) {
+                int entities = ((EntityManagerHolder) resource).getEntityManager()
+                        .unwrap(Session.class).getStatistics().getEntityCount();
+                Counts current = counts.get();
+                current.entitiesRetained = Math.max(current.entitiesRetained, entities);
+            }
+        }
+    }
+
+    @Getter
+    public static class Counts {
+
+        private long statements;
+
+        private long entitiesLoaded;
+
+        private long flushes;
+
+        private long entitiesRetained;
+    }
+}
@@ -0,0 +1,106 @@
+package empapp;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Runs at most one load per key at a time, concurrent callers of the same key wait for
+ * and share the result (or exception) of the load in flight. The key is removed when
+ * the load completes, nothing is cached. Every caller gets its own copy of the value,
+ * and {@link #forget} makes later callers start a new load, e.g. after a write.
+ */
+public class SingleFlight<K, V> {
+
+    // a ConcurrentHashMap vödrönként zárol, a különböző kulcsok betöltései nem várnak egymásra
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final UnaryOperator<V> copier;
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * @param copier copies a loaded value for each caller, so that they can not see each other's changes
+     */
+    public SingleFlight(UnaryOperator<V> copier) {
+        this.copier = copier;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            joined.increment();
+            return copy(await(inFlight));
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            // előbb kivesszük, hogy a később érkezők új betöltést indítsanak, ne a már befejezettet kapják meg;
+            // a forget után már egy másik betöltés lehet a kulcson, azt nem vesszük ki
+            calls.remove(key, call);
+            call.complete(value);
+            // a csatlakozók a még senkinek nem adott eredeti értékről másolnak
+            return copy(value);
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Callers arriving after this do not join the load in flight for the key, if any, but start
+     * a new one. Call it after a write to the key has been committed, as the load in flight may
+     * have read the data before the write.
+     */
+    public void forget(K key) {
+        calls.remove(key);
+    }
+
+    /**
+     * Number of loads run.
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * Number of calls served by another caller's load, i.e. loads saved.
+     */
+    public long getJoined() {
+        return joined.sum();
+    }
+
+    public int getInFlight() {
+        return calls.size();
+    }
+
+    private V copy(V value) {
+        return value == null ? null : copier.apply(value);
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the load in flight", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package empapp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Returns the number of SQL statements of the request in the X-SQL-Statement-Count header
+ * and records it as the employees.request.sql.statements metric. Requests over their
+ * employees.sql.budget are logged and counted.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.sql.count-statements", havingValue = "true")
+@AllArgsConstructor
+@Slf4j
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private SqlStatementCounter sqlStatementCounter;
+
+    private MeterRegistry meterRegistry;
+
+    // metódus és uri minta szerint, a kérés csak kikeresi a metrikákat
+    private final Map<String, DistributionSummary> statementSummaries = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> budgetExceededCounters = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.RequestStatements statements = sqlStatementCounter.start(request);
+        StatementCountResponseWrapper wrapper = new StatementCountResponseWrapper(response, statements);
+        try {
+            filterChain.doFilter(request, wrapper);
+            wrapper.writeHeader();
+        } finally {
+            sqlStatementCounter.finish();
+            record(request, statements);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.RequestStatements statements) {
+        String method = request.getMethod();
+        String uri = statements.getPattern();
+        String key = method + " " + uri;
+        statementSummaries.computeIfAbsent(key, k -> DistributionSummary.builder("employees.request.sql.statements")
+                        .description("SQL statements executed by the request thread while handling the request")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .register(meterRegistry))
+                .record(statements.getCount());
+        if (statements.isBudgetExceeded()) {
+            log.warn("{} {} executed {} SQL statements, the budget is {}", method, statements.getHandler(),
+                    statements.getCount(), statements.getBudget());
+            budgetExceededCounters.computeIfAbsent(key, k -> Counter.builder("employees.request.sql.budget.exceeded")
+                            .description("Requests executing more SQL statements than their budget")
+                            .tag("method", method)
+                            .tag("uri", uri)
+                            .register(meterRegistry))
+                    .increment();
+        }
+    }
+
+    /**
+     * Sets the header right before the response gets committed, as it can not be added afterwards.
+     */
+    private static class StatementCountResponseWrapper extends HttpServletResponseWrapper {
+
+        private final SqlStatementCounter.RequestStatements statements;
+
+        private boolean headerWritten;
+
+        StatementCountResponseWrapper(HttpServletResponse response, SqlStatementCounter.RequestStatements statements) {
+            super(response);
+            this.statements = statements;
+        }
+
+        void writeHeader() {
+            if (!headerWritten && !isCommitted()) {
+                setHeader(HEADER, Long.toString(statements.getCount()));
+            }
+            headerWritten = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package empapp;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the JDBC statements executed by the request thread. A batch counts as one statement,
+ * as it is one round trip to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.sql.count-statements", havingValue = "true")
+@AllArgsConstructor
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private final ThreadLocal<RequestStatements> requestStatements = new ThreadLocal<>();
+
+    private final Map<Method, String> paramsByHandler = new ConcurrentHashMap<>();
+
+    private EmployeesProperties employeesProperties;
+
+    public RequestStatements start(HttpServletRequest request) {
+        RequestStatements statements = new RequestStatements(request);
+        requestStatements.set(statements);
+        return statements;
+    }
+
+    public void finish() {
+        requestStatements.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStatements statements = requestStatements.get();
+        if (statements != null) {
+            statements.increment();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // a számlálás a végrehajtás előtt történik, hogy a keret túllépése meg is állíthassa
+    }
+
+    // ugyanarra a mintára több handler is illeszkedhet (lista, lapozás, város), a mapping kötelező paraméterei
+    // választják szét őket, pl. limit; a tiltott (!city) paraméterek nem kerülnek bele
+    private String params(HandlerMethod handler) {
+        return paramsByHandler.computeIfAbsent(handler.getMethod(), method -> {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+            return mapping == null ? "" : Arrays.stream(mapping.params())
+                    .filter(param -> !param.startsWith("!"))
+                    .collect(Collectors.joining("&"));
+        });
+    }
+
+    public class RequestStatements {
+
+        private final HttpServletRequest request;
+
+        @Getter
+        private long count;
+
+        private boolean budgetResolved;
+
+        @Getter
+        private Integer budget;
+
+        private RequestStatements(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        public boolean isBudgetExceeded() {
+            return budget != null && count > budget;
+        }
+
+        public String getPattern() {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return pattern != null ? pattern.toString() : "UNKNOWN";
+        }
+
+        public String getParams() {
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+            return handler instanceof HandlerMethod ? params((HandlerMethod) handler) : "";
+        }
+
+        /**
+         * The handler pattern, followed by the params of its mapping, e.g. /api/employees?city.
+         */
+        public String getHandler() {
+            String params = getParams();
+            return params.isEmpty() ? getPattern() : getPattern() + "?" + params;
+        }
+
+        private void increment() {
+            count++;
+            if (!budgetResolved) {
+                // Az első utasítás már a handlerben fut, ekkor a minta már ismert
+                budget = employeesProperties.getSql().getBudget(HttpMethod.resolve(request.getMethod()), getHandler());
+                budgetResolved = true;
+            }
+            if (isBudgetExceeded() && employeesProperties.getSql().isFailOnBudgetExceeded()) {
+                throw new SqlBudgetExceededException(String.format("%s %s executed more than %d SQL statements",
+                        request.getMethod(), getHandler(), budget));
+            }
+        }
+    }
+}
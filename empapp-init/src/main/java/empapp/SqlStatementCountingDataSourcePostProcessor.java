@@ -0,0 +1,34 @@
+package empapp;
+
+import lombok.AllArgsConstructor;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data sources into a datasource-proxy, so every JDBC statement passes through
+ * the SqlStatementCounter.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.sql.count-statements", havingValue = "true")
+@AllArgsConstructor
+public class SqlStatementCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private ObjectProvider<SqlStatementCounter> sqlStatementCounter;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(sqlStatementCounter.getObject())
+                .build();
+    }
+}
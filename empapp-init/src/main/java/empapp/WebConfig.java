@@ -0,0 +1,60 @@
+package empapp;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@AllArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private ObjectProvider<RequestAllocationInterceptor> requestAllocationInterceptor;
+
+    private ObjectProvider<RequestSessionStatisticsInterceptor> requestSessionStatisticsInterceptor;
+
+    private EmployeeProtobufMapper employeeProtobufMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        requestAllocationInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+        requestSessionStatisticsInterceptor.ifAvailable(interceptor ->
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**"));
+    }
+
+    // a lista végére, csak application/x-protobuf Accept vagy Content-Type esetén választja a Spring
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new EmployeeProtobufHttpMessageConverter(employeeProtobufMapper));
+    }
+
+    /**
+     * Smile ({@code application/x-jackson-smile}) request and response bodies, with the same
+     * {@code spring.jackson.*} settings as JSON.
+     */
+    // a Boot az alapértelmezett Smile konverter helyére teszi, így a JSON marad elöl, Accept nélkül az az alapértelmezett
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * CBOR ({@code application/cbor}) request and response bodies, with the same
+     * {@code spring.jackson.*} settings as JSON.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,25 @@
+package empapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeesPageDto {
+
+    private List<EmployeeDto> employees;
+
+    // a következő oldal after paramétere, null, ha nincs több oldal
+    private Long nextCursor;
+
+    // a név szerinti keresés következő oldalának afterName paramétere, a többi listánál null
+    private String nextName;
+
+    public EmployeesPageDto(List<EmployeeDto> employees, Long nextCursor) {
+        this(employees, nextCursor, null);
+    }
+}
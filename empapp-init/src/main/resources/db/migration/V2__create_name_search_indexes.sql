@@ -0,0 +1,7 @@
+create extension if not exists pg_trgm;
+
+-- prefix keresés: lower(name) like 'abc%'
+create index employee_lower_name_idx on employee (lower(name) text_pattern_ops);
+
+-- tartalmazás keresés: lower(name) like '%abc%'
+create index employee_lower_name_trgm_idx on employee using gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,10 @@
+-- a név szerinti keresés (lower(name), id) szerint lapoz, "C" collationnel bájtsorrendben, így ugyanez a btree
+-- szolgálja ki a prefix like-ot, a rendezést és a (név, id) > (:afterName, :after) feltételt
+create index employee_lower_name_id_idx on employee ((lower(name)) collate "C", id);
+
+-- a prefix keresést már az új index szolgálja ki
+drop index employee_lower_name_idx;
+
+-- a lekérdezés lower(name) collate "C" kifejezésére csak azonos collationnel illeszkedik
+drop index employee_lower_name_trgm_idx;
+create index employee_lower_name_trgm_idx on employee using gin ((lower(name)) collate "C" gin_trgm_ops);
@@ -0,0 +1,93 @@
+package empapp;
+
+import empapp.entity.Address;
+import empapp.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        // a migrációk PostgreSQL-esek (pg_trgm)
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("l2cache")
+@AutoConfigureMockMvc
+class SecondLevelCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private long first;
+
+    private long second;
+
+    private long third;
+
+    @BeforeEach
+    void init() throws Exception {
+        first = save("John Doe");
+        second = save("Jack Doe");
+        third = save("Jane Doe");
+        for (long id : new long[] {first, second, third}) {
+            mockMvc.perform(get("/api/employees/{id}", id)).andExpect(status().isOk());
+        }
+    }
+
+    @Test
+    void updateKeepsOtherEmployeesCached() throws Exception {
+        mockMvc.perform(put("/api/employees/{id}", first)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"John Smith\"}"))
+                .andExpect(status().isOk());
+
+        expectCached(second);
+        expectCached(third);
+        expectCached(first)
+                .andExpect(jsonPath("$.name").value("John Smith"));
+    }
+
+    @Test
+    void deleteKeepsOtherEmployeesCached() throws Exception {
+        mockMvc.perform(delete("/api/employees/{id}", first))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(delete("/api/employees").param("ids", Long.toString(second)))
+                .andExpect(status().is2xxSuccessful());
+
+        expectCached(third);
+        mockMvc.perform(get("/api/employees/{id}", first)).andExpect(status().isNotFound());
+    }
+
+    // az alkalmazott és a címei is a second-level cache-ből jönnek, SQL utasítás nélkül
+    private ResultActions expectCached(long id) throws Exception {
+        return mockMvc.perform(get("/api/employees/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.addresses[0].city").value("Budapest"))
+                .andExpect(header().string(SqlStatementCountFilter.HEADER, "0"));
+    }
+
+    private long save(String name) {
+        Employee employee = new Employee(name);
+        employee.addAddress(new Address("Budapest"));
+        return employeeRepository.save(employee).getId();
+    }
+}
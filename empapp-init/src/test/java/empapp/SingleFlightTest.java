@@ -0,0 +1,83 @@
+package empapp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Long, List<String>> singleFlight = new SingleFlight<>(ArrayList::new);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void callersGetOwnCopyOfSharedLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<String>> first = executor.submit(() -> singleFlight.execute(1L, () -> {
+            loading.countDown();
+            await(release);
+            return Arrays.asList("John");
+        }));
+        loading.await();
+        Future<List<String>> second = executor.submit(() -> singleFlight.execute(1L, () -> Arrays.asList("Jack")));
+        waitForJoin(1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly("John");
+        assertThat(second.get(5, TimeUnit.SECONDS)).containsExactly("John").isNotSameAs(first.get());
+        assertThat(singleFlight.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void callerAfterForgetDoesNotJoinLoadInFlight() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<String>> before = executor.submit(() -> singleFlight.execute(1L, () -> {
+            loading.countDown();
+            await(release);
+            return Arrays.asList("John");
+        }));
+        loading.await();
+        // a módosítás commitolt, a betöltés még a régi nevet olvasta
+        singleFlight.forget(1L);
+
+        assertThat(singleFlight.execute(1L, () -> Arrays.asList("Jack"))).containsExactly("Jack");
+        release.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).containsExactly("John");
+        assertThat(singleFlight.getLoads()).isEqualTo(2);
+        assertThat(singleFlight.getJoined()).isZero();
+    }
+
+    private void waitForJoin(long joined) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getJoined() < joined && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(singleFlight.getJoined()).isEqualTo(joined);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package empapp;
+
+import empapp.entity.Address;
+import empapp.entity.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:employees;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        // a migrációk PostgreSQL-esek (pg_trgm)
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "employees.sql.fail-on-budget-exceeded=true",
+        // a városra szűrt oldal az alkalmazottakat és a címeiket két utasítással olvassa
+        "employees.sql.budget.get[/api/employees?city]=1"
+})
+@AutoConfigureMockMvc
+class SqlStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void init() {
+        Employee employee = new Employee("John Doe");
+        employee.addAddress(new Address("Budapest"));
+        employeeRepository.save(employee);
+    }
+
+    @Test
+    void requestOverItsBudgetFails() throws Exception {
+        mockMvc.perform(get("/api/employees").param("city", "Budapest"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.title").value("SQL budget exceeded"))
+                .andExpect(jsonPath("$.detail").value("GET /api/employees?city executed more than 1 SQL statements"));
+    }
+
+    @Test
+    void handlersOfTheSamePatternHaveTheirOwnBudget() throws Exception {
+        mockMvc.perform(get("/api/employees").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatementCountFilter.HEADER, "2"));
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk());
+    }
+}
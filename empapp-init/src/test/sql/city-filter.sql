@@ -0,0 +1,49 @@
+-- Város szerinti szűrés lekérdezési terve indexek nélkül és indexekkel
+--
+-- Az alkalmazás által létrehozott sémán futtatandó, a meglévő adatokat törli!
+-- psql -h localhost -U employees -f src/test/sql/city-filter.sql employees
+
+\timing on
+
+truncate address, employee;
+
+insert into employee (id, name)
+select i, 'Employee ' || i
+from generate_series(1, 200000) as i;
+
+insert into address (id, city, employee_id)
+select (e - 1) * 5 + a, 'City ' || ((e * 7 + a * 13) % 1000), e
+from generate_series(1, 200000) as e, generate_series(1, 5) as a;
+
+select setval('employee_seq', 200000);
+select setval('address_seq', 1000000);
+
+drop index if exists address_city_employee_id_idx;
+drop index if exists address_employee_id_idx;
+analyze employee;
+analyze address;
+
+-- Indexek nélkül: seq scan az address táblán
+explain (analyze, buffers)
+select e.id, e.name from employee e
+where e.id > 0
+  and exists (select a.id from address a where a.employee_id = e.id and a.city = 'City 42')
+order by e.id limit 21;
+
+-- Kaszkád törlés indexek nélkül: seq scan az employee_id-ra
+explain (analyze, buffers)
+select a.id from address a where a.employee_id in (100, 200, 300);
+
+create index address_city_employee_id_idx on address (city, employee_id);
+create index address_employee_id_idx on address (employee_id);
+analyze address;
+
+-- Indexekkel: index only scan a (city, employee_id) indexen
+explain (analyze, buffers)
+select e.id, e.name from employee e
+where e.id > 0
+  and exists (select a.id from address a where a.employee_id = e.id and a.city = 'City 42')
+order by e.id limit 21;
+
+explain (analyze, buffers)
+select a.id from address a where a.employee_id in (100, 200, 300);
@@ -0,0 +1,62 @@
+-- Név szerinti keresés lekérdezési tervei egymillió alkalmazotton
+--
+-- Az alkalmazás által létrehozott sémán futtatandó, a meglévő adatokat törli!
+-- psql -h localhost -U employees -f src/test/sql/name-search.sql employees
+--
+-- Eredmény (PostgreSQL 14.5, 1 CPU, V3 migráció után), 21 soros oldalak (lower(name) collate "C", id) szerint:
+-- - prefix, gyakori (12,5%), első és mély oldal: employee_lower_name_id_idx index scan, 24 buffer, 0,2 ms
+--   a (név, id) > kurzor feltétel és a prefix tartomány együtt adja az index scan kezdőpontját
+-- - prefix, ritka: ugyanez az index, 24 buffer, 0,1 ms
+-- - tartalmazás, ritka: employee_lower_name_trgm_idx bitmap scan, a 2 találat rendezése, 6 ms
+-- - tartalmazás, gyakori: az index sorrendjében szűr, 250 000 sort dob el az első 21 előtt, 471 ms;
+--   a részszöveg szerinti szűrés és a név szerinti rendezés együtt nem indexelhető
+-- Az első oldal kurzora ("", 0) helyett a keresett név, különben a scan az index elejéről indul (2640 buffer, 27 ms),
+-- a trigram indexet pedig "C" collationnel kell létrehozni, különben nem illeszkedik (párhuzamos seq scan, 353 ms).
+
+\timing on
+
+truncate address, employee;
+
+insert into employee (id, name)
+select i, (array['John', 'Jane', 'Jack', 'Jill', 'Joe', 'Anna', 'Peter', 'Mary'])[1 + i % 8]
+              || ' ' || md5(i::text)
+from generate_series(1, 1000000) as i;
+
+select setval('employee_seq', 1000000);
+
+analyze employee;
+
+-- Prefix, gyakori, első oldal: employee_lower_name_id_idx, a kurzor a keresett név
+explain (analyze, buffers)
+select e.id, e.name from employee e
+where lower(e.name) collate "C" like 'jane%' escape '\'
+  and (lower(e.name) collate "C", e.id) > (lower('Jane') collate "C", 0)
+order by lower(e.name) collate "C", e.id limit 21;
+
+-- Prefix, gyakori, mély oldal: a kurzor az index közepére pozicionál
+explain (analyze, buffers)
+select e.id, e.name from employee e
+where lower(e.name) collate "C" like 'jane%' escape '\'
+  and (lower(e.name) collate "C", e.id) > (lower('Jane 8') collate "C", 0)
+order by lower(e.name) collate "C", e.id limit 21;
+
+-- Prefix, ritka: employee_lower_name_id_idx
+explain (analyze, buffers)
+select e.id, e.name from employee e
+where lower(e.name) collate "C" like 'jane 00%' escape '\'
+  and (lower(e.name) collate "C", e.id) > (lower('Jane 00') collate "C", 0)
+order by lower(e.name) collate "C", e.id limit 21;
+
+-- Tartalmazás, ritka: employee_lower_name_trgm_idx, a néhány találatot rendezi
+explain (analyze, buffers)
+select e.id, e.name from employee e
+where lower(e.name) collate "C" like '%c4ca42%' escape '\'
+  and (lower(e.name) collate "C", e.id) > (lower('') collate "C", 0)
+order by lower(e.name) collate "C", e.id limit 21;
+
+-- Tartalmazás, gyakori: employee_lower_name_id_idx sorrendjében szűr
+explain (analyze, buffers)
+select e.id, e.name from employee e
+where lower(e.name) collate "C" like '%ane%' escape '\'
+  and (lower(e.name) collate "C", e.id) > (lower('') collate "C", 0)
+order by lower(e.name) collate "C", e.id limit 21;
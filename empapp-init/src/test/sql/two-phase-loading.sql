@@ -0,0 +1,69 @@
+-- Fetch join és kétlépcsős betöltés összehasonlítása sok címmel rendelkező alkalmazottakon
+--
+-- Az alkalmazás által létrehozott sémán futtatandó, a meglévő adatokat törli!
+-- psql -h localhost -U employees -f src/test/sql/two-phase-loading.sql employees
+--
+-- Eredmény (PostgreSQL 14.5, 1 CPU, második futás, meleg cache), 10 000 alkalmazott, egyenként 20 címmel:
+-- - teljes lista fetch joinnal: 200 000 sor, 44 bájt széles, a DISTINCT HashAggregate 15 MB-ot a lemezre ír, 399 ms
+-- - 100-as oldal fetch joinnal: 2020 sor, 44 bájt széles (~89 KB), 6,8 ms
+-- - ugyanez két lépésben: 101 alkalmazott (21 bájt) + 2000 cím (23 bájt), ~48 KB, 0,08 ms + 1,8 ms
+--   az address_employee_id_idx indexszel (bitmap index scan)
+-- A sorok száma nem csökken (2000 helyett 2101), az alkalmazott oszlopai viszont nem ismétlődnek címenként,
+-- így az átvitt adat közel a fele, és elmarad a DISTINCT.
+
+\timing on
+
+truncate address, employee;
+
+insert into employee (id, name)
+select i, 'Employee ' || i
+from generate_series(1, 10000) as i;
+
+insert into address (id, city, employee_id)
+select (e - 1) * 20 + a, 'City ' || (e * a % 100), e
+from generate_series(1, 10000) as e, generate_series(1, 20) as a;
+
+select setval('employee_seq', 10000);
+select setval('address_seq', 200000);
+
+analyze employee;
+analyze address;
+
+-- Korábbi teljes lista: findAllWithAddresses, minden címhez egy sor, az alkalmazott oszlopai ismételve
+explain (analyze, buffers)
+select distinct e.id, a.id, e.name, a.city, a.employee_id
+from employee e
+left outer join address a on e.id = a.employee_id;
+
+-- Egy 100 elemű oldal fetch joinnal
+explain (analyze, buffers)
+select distinct e.id, a.id, e.name, a.city, a.employee_id
+from employee e
+left outer join address a on e.id = a.employee_id
+where e.id in (select id from employee where id > 5000 order by id limit 101);
+
+-- Ugyanez az oldal két lépésben: alkalmazottak, majd a címek egy IN lekérdezéssel
+explain (analyze, buffers)
+select e.id, e.name
+from employee e
+where e.id > 5000
+order by e.id
+limit 101;
+
+-- az alkalmazás az első lépés azonosítóit paraméterként küldi (in (?, ?, ...)), az = any (array(...)) ugyanígy
+-- ismeretlen értékként kerül a tervbe; az in (select ...) alakra a tervező hash semi joint és seq scant választ
+explain (analyze, buffers)
+select a.id, a.city, a.employee_id
+from address a
+where a.employee_id = any (array(select id from employee where id > 5000 order by id limit 100))
+order by a.id;
+
+-- Átvitt sorok száma oldalanként
+select count(*) as fetch_join_rows
+from employee e
+left outer join address a on e.id = a.employee_id
+where e.id in (select id from employee where id > 5000 order by id limit 100);
+
+select (select count(*) from (select id from employee where id > 5000 order by id limit 101) p)
+     + (select count(*) from address where employee_id in (select id from employee where id > 5000 order by id limit 100))
+    as two_phase_rows;
@@ -0,0 +1,117 @@
+package training.empapploadtest;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.Driver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts an employee module as a child process on an in-memory H2 database, so no PostgreSQL
+ * instance or network access is needed. The H2 JDBC and R2DBC drivers are put on the module's
+ * classpath through the loader.path of Spring Boot's PropertiesLauncher.
+ */
+@Slf4j
+public class ApplicationUnderTest implements AutoCloseable {
+
+    private final LoadTestProperties properties;
+
+    private Process process;
+
+    public ApplicationUnderTest(LoadTestProperties properties) {
+        this.properties = properties;
+    }
+
+    public void start() throws IOException, InterruptedException {
+        var output = properties.getReportDirectory().resolve("application.log");
+        Files.createDirectories(properties.getReportDirectory());
+
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(properties.getJvmArgs());
+        command.add("-Dloader.path=" + jarOf(Driver.class) + "," + jarOf(H2ConnectionFactory.class));
+        command.add("-cp");
+        command.add(properties.getJar().toAbsolutePath().toString());
+        command.add("org.springframework.boot.loader.PropertiesLauncher");
+        command.add("--server.port=" + properties.getPort());
+        command.add("--spring.datasource.url=jdbc:h2:mem:employees;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        command.add("--spring.datasource.username=sa");
+        command.add("--spring.datasource.password=");
+        command.add("--spring.datasource.driver-class-name=org.h2.Driver");
+        command.add("--spring.jpa.hibernate.ddl-auto=create");
+        command.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+        command.add("--spring.r2dbc.url=r2dbc:h2:mem:///employees?options=MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        command.add("--spring.r2dbc.username=sa");
+        command.add("--spring.r2dbc.password=");
+        command.add("--spring.flyway.enabled=false");
+        command.add("--spring.liquibase.enabled=false");
+        command.addAll(properties.getAppArgs());
+
+        log.info("Starting {}", properties.getJar());
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output.toFile())
+                .start();
+        awaitStarted(output);
+    }
+
+    private void awaitStarted(Path output) throws InterruptedException {
+        var client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        var request = HttpRequest.newBuilder(URI.create(properties.getBaseUrl() + "/api/employees/0")).build();
+        var deadline = System.nanoTime() + properties.getStartupTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue() + ", see " + output);
+            }
+            try {
+                // Bármilyen HTTP válasz (a 404 is) azt jelenti, hogy a Tomcat és a controllerek fent vannak
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+                log.info("Application started on port {}", properties.getPort());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException("Application did not start in " + properties.getStartupTimeout() + ", see " + output);
+    }
+
+    private static Path jarOf(Class<?> type) throws IOException {
+        URL location = type.getProtectionDomain().getCodeSource().getLocation();
+        if ("file".equals(location.getProtocol())) {
+            return Path.of(URI.create(location.toString()));
+        }
+        // Futtatható jar-ból indítva a driver egy beágyazott jar-ban van, azt ki kell másolni
+        var nested = new URL(location.toString().replaceFirst("!/$", ""));
+        var jar = Files.createTempFile(type.getSimpleName() + "-", ".jar");
+        jar.toFile().deleteOnExit();
+        try (var in = nested.openStream()) {
+            Files.copy(in, jar, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not extract driver from " + location, e);
+        }
+        return jar;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (process == null || !process.isAlive()) {
+            return;
+        }
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package training.empapploadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Blocking client for the /api/employees contract shared by the employee modules.
+ */
+public class EmployeesClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final List<String> CITIES = List.of("Budapest", "Debrecen", "Szeged", "Pécs", "Győr");
+
+    private final HttpClient client;
+
+    private final URI employees;
+
+    private final ObjectMapper objectMapper;
+
+    public EmployeesClient(String baseUrl, int connections, ObjectMapper objectMapper) {
+        // HTTP/1.1 keep-alive: a worker szálak újrahasznosítják a kapcsolatokat
+        System.setProperty("jdk.httpclient.connectionPoolSize", Integer.toString(connections));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.employees = URI.create(baseUrl + "/api/employees");
+        this.objectMapper = objectMapper;
+    }
+
+    public int findEmployeeById(long id) throws IOException, InterruptedException {
+        return send(get(employees + "/" + id));
+    }
+
+    public int listEmployees() throws IOException, InterruptedException {
+        return send(get(employees.toString()));
+    }
+
+    public int listEmployees(long after, int limit) throws IOException, InterruptedException {
+        return send(get(employees + "?after=" + after + "&limit=" + limit));
+    }
+
+    /**
+     * @return the id of the created employee, or -1 if it was not created
+     */
+    public long createEmployee(String name) throws IOException, InterruptedException {
+        var random = ThreadLocalRandom.current();
+        var command = Map.of(
+                "name", name,
+                "addresses", List.of(Map.of("city", CITIES.get(random.nextInt(CITIES.size())))));
+        var request = HttpRequest.newBuilder(employees)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(body(command))
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            return -1;
+        }
+        return objectMapper.readTree(response.body()).path("id").asLong(-1);
+    }
+
+    public int updateEmployee(long id, String name) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(employees + "/" + id))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .PUT(body(Map.of("name", name)))
+                .build());
+    }
+
+    public int deleteEmployee(long id) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(employees + "/" + id))
+                .timeout(TIMEOUT)
+                .DELETE()
+                .build());
+    }
+
+    private HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest.BodyPublisher body(Object value) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not write request body", e);
+        }
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        // A válasz törzsét végig kell olvasni, hogy a kapcsolat visszakerüljön a poolba
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,42 @@
+package training.empapploadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The ids of the employees known to exist, so that reads, updates and deletes hit real rows.
+ */
+public class IdPool {
+
+    private final List<Long> ids = new ArrayList<>();
+
+    public synchronized void add(long id) {
+        ids.add(id);
+    }
+
+    public synchronized int size() {
+        return ids.size();
+    }
+
+    public synchronized OptionalLong random() {
+        if (ids.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    public synchronized OptionalLong remove() {
+        if (ids.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        // Az utolsó elemmel felülírva konstans időben törölhető
+        var index = ThreadLocalRandom.current().nextInt(ids.size());
+        var last = ids.remove(ids.size() - 1);
+        if (index == ids.size()) {
+            return OptionalLong.of(last);
+        }
+        return OptionalLong.of(ids.set(index, last));
+    }
+}
@@ -0,0 +1,214 @@
+package training.empapploadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests from the worker threads, choosing the operation randomly by the configured weights.
+ * With a rate the requests follow a fixed schedule (open loop), and the latency is measured from the
+ * scheduled start, so the time a request waited for a free worker is included. Without a rate every
+ * worker sends its next request as soon as the previous one completed (closed loop).
+ */
+@Slf4j
+public class LoadGenerator implements AutoCloseable {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final LoadTestProperties properties;
+
+    private final EmployeesClient client;
+
+    private final IdPool ids = new IdPool();
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final ExecutorService workers;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public LoadGenerator(LoadTestProperties properties, EmployeesClient client) {
+        this.properties = properties;
+        this.client = client;
+
+        var weighted = properties.getMix().entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .toList();
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("At least one operation must have positive weight in loadtest.mix");
+        }
+        operations = new Operation[weighted.size()];
+        cumulativeWeights = new int[weighted.size()];
+        var sum = 0;
+        for (int i = 0; i < weighted.size(); i++) {
+            operations[i] = weighted.get(i).getKey();
+            sum += weighted.get(i).getValue();
+            cumulativeWeights[i] = sum;
+        }
+        for (var operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+
+        var threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.getConcurrency(), r -> {
+            var thread = new Thread(r, "loadtest-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void seed() throws InterruptedException, ExecutionException {
+        log.info("Creating {} employees", properties.getEmployees());
+        var remaining = new AtomicInteger(properties.getEmployees());
+        var futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < properties.getConcurrency(); i++) {
+            futures.add(workers.submit(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    var id = client.createEmployee(nextName());
+                    if (id < 0) {
+                        throw new IllegalStateException("Can not create employee");
+                    }
+                    ids.add(id);
+                }
+                return null;
+            }));
+        }
+        awaitAll(futures);
+    }
+
+    public void warmup() throws InterruptedException, ExecutionException {
+        log.info("Warming up for {}", properties.getWarmup());
+        run(properties.getWarmup());
+        stats.values().forEach(OperationStats::reset);
+    }
+
+    public Duration measure() throws InterruptedException, ExecutionException {
+        log.info("Measuring for {} with {} concurrent clients, {}", properties.getDuration(), properties.getConcurrency(),
+                properties.getRate() != null ? properties.getRate() + " requests per second" : "back to back");
+        var start = System.nanoTime();
+        run(properties.getDuration());
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    public Map<Operation, OperationStats> getStats() {
+        return stats;
+    }
+
+    private void run(Duration duration) throws InterruptedException, ExecutionException {
+        var start = System.nanoTime();
+        var deadline = start + duration.toNanos();
+        var slots = new AtomicLong();
+        var futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < properties.getConcurrency(); i++) {
+            futures.add(workers.submit(() -> {
+                if (properties.getRate() == null) {
+                    while (System.nanoTime() < deadline) {
+                        execute(nextOperation(), System.nanoTime());
+                    }
+                    return null;
+                }
+                // A késésben lévő worker nem vár, azonnal küldi a lemaradt kéréseket
+                var scheduled = start + slots.getAndIncrement() * 1_000_000_000L / properties.getRate();
+                while (scheduled < deadline) {
+                    parkUntil(scheduled);
+                    execute(nextOperation(), scheduled);
+                    scheduled = start + slots.getAndIncrement() * 1_000_000_000L / properties.getRate();
+                }
+                return null;
+            }));
+        }
+        awaitAll(futures);
+    }
+
+    private static void parkUntil(long nanoTime) {
+        for (var remaining = nanoTime - System.nanoTime(); remaining > 0; remaining = nanoTime - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void execute(Operation operation, long start) throws InterruptedException {
+        var operationStats = stats.get(operation);
+        try {
+            operationStats.record(start, send(operation));
+        } catch (IOException e) {
+            operationStats.record(start, false);
+        }
+    }
+
+    /**
+     * @return whether the request succeeded; a 404 on a read or update is accepted, as a
+     * concurrent worker may have deleted the chosen employee in the meantime
+     */
+    private boolean send(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case GET -> accepted(client.findEmployeeById(ids.random().orElse(0)));
+            case LIST -> success(client.listEmployees());
+            case PAGE -> success(client.listEmployees(Math.max(0, ids.random().orElse(0) - 1), PAGE_SIZE));
+            case CREATE -> {
+                var id = client.createEmployee(nextName());
+                if (id >= 0) {
+                    ids.add(id);
+                }
+                yield id >= 0;
+            }
+            case UPDATE -> accepted(client.updateEmployee(ids.random().orElse(0), nextName()));
+            case DELETE -> {
+                // Ha minden alkalmazottat töröltünk, a törlés helyett létrehoz egyet, hogy a keverék ne boruljon fel
+                var id = ids.remove();
+                if (id.isEmpty()) {
+                    yield send(Operation.CREATE);
+                }
+                yield success(client.deleteEmployee(id.getAsLong()));
+            }
+        };
+    }
+
+    private Operation nextOperation() {
+        var value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    private String nextName() {
+        return "Employee " + sequence.incrementAndGet();
+    }
+
+    private static boolean success(int status) {
+        return status / 100 == 2;
+    }
+
+    private static boolean accepted(int status) {
+        return success(status) || status == 404;
+    }
+
+    private static void awaitAll(Iterable<Future<?>> futures) throws InterruptedException, ExecutionException {
+        for (var future : futures) {
+            future.get();
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,81 @@
+package training.empapploadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties("loadtest")
+@Data
+public class LoadTestProperties {
+
+    /**
+     * The executable jar of the module to start against H2. When empty, the application
+     * already running at base-url is measured.
+     */
+    private Path jar;
+
+    private List<String> jvmArgs = new ArrayList<>();
+
+    /**
+     * Extra arguments for the started module, e.g. --spring.cache.type=simple.
+     */
+    private List<String> appArgs = new ArrayList<>();
+
+    private int port = 18080;
+
+    private String baseUrl;
+
+    private Duration startupTimeout = Duration.ofMinutes(2);
+
+    /**
+     * The number of employees created before the warmup.
+     */
+    private int employees = 1000;
+
+    /**
+     * The number of worker threads, the maximum of concurrent requests.
+     */
+    private int concurrency = 32;
+
+    /**
+     * Requests per second, sent on a fixed schedule regardless of the response times. When
+     * empty, the workers send back to back, which hides the queueing delay from the latencies.
+     */
+    private Integer rate;
+
+    private Duration warmup = Duration.ofSeconds(10);
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Relative weights of the operations.
+     */
+    private Map<Operation, Integer> mix = new EnumMap<>(Map.of(
+            Operation.GET, 80,
+            Operation.LIST, 2,
+            Operation.CREATE, 8,
+            Operation.UPDATE, 8,
+            Operation.DELETE, 2));
+
+    private Path reportDirectory = Path.of("target", "loadtest");
+
+    /**
+     * When set, the run fails if the p99 latency of any operation is above it. Requires the rate.
+     */
+    private Duration maxP99;
+
+    /**
+     * When set, the run fails if the ratio of failed requests is above it.
+     */
+    private Double maxErrorRate;
+
+    public String getBaseUrl() {
+        return baseUrl != null ? baseUrl : "http://localhost:" + port;
+    }
+}
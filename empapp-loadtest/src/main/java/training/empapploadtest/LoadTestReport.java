@@ -0,0 +1,102 @@
+package training.empapploadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints throughput and latency percentiles per operation, writes the full HdrHistogram
+ * percentile distributions (.hgrm, in milliseconds) and checks the configured limits.
+ */
+public class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final LoadTestProperties properties;
+
+    private final Map<Operation, OperationStats> stats;
+
+    private final Duration elapsed;
+
+    public LoadTestReport(LoadTestProperties properties, Map<Operation, OperationStats> stats, Duration elapsed) {
+        this.properties = properties;
+        this.stats = stats;
+        this.elapsed = elapsed;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s%n",
+                "", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        var total = new Histogram(3);
+        var totalErrors = 0L;
+        for (var operationStats : stats.values()) {
+            if (operationStats.getCount() == 0) {
+                continue;
+            }
+            var latencies = operationStats.getLatencies();
+            total.add(latencies);
+            totalErrors += operationStats.getErrors();
+            printLine(out, operationStats.getOperation().name(), latencies, operationStats.getErrors());
+        }
+        printLine(out, "TOTAL", total, totalErrors);
+    }
+
+    private void printLine(PrintStream out, String name, Histogram latencies, long errors) {
+        out.printf(Locale.ROOT, "%-8s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                name,
+                latencies.getTotalCount(),
+                errors,
+                latencies.getTotalCount() / (elapsed.toNanos() / 1e9),
+                latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                latencies.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    public void writeHistograms() throws IOException {
+        Files.createDirectories(properties.getReportDirectory());
+        for (var operationStats : stats.values()) {
+            if (operationStats.getCount() == 0) {
+                continue;
+            }
+            Path file = properties.getReportDirectory().resolve(operationStats.getOperation().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (var out = new PrintStream(Files.newOutputStream(file))) {
+                operationStats.getLatencies().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    /**
+     * @return the violated limits, empty if the run passed
+     */
+    public List<String> violations() {
+        var violations = new ArrayList<String>();
+        var requests = 0L;
+        var errors = 0L;
+        for (var operationStats : stats.values()) {
+            requests += operationStats.getCount();
+            errors += operationStats.getErrors();
+            if (properties.getMaxP99() != null && operationStats.getCount() > 0) {
+                var p99 = Duration.ofNanos(operationStats.getLatencies().getValueAtPercentile(99) * 1_000);
+                if (p99.compareTo(properties.getMaxP99()) > 0) {
+                    violations.add("p99 of %s is %s, limit is %s".formatted(operationStats.getOperation(), p99, properties.getMaxP99()));
+                }
+            }
+        }
+        if (properties.getMaxErrorRate() != null && requests > 0) {
+            var errorRate = (double) errors / requests;
+            if (errorRate > properties.getMaxErrorRate()) {
+                violations.add("error rate is %.4f, limit is %.4f".formatted(errorRate, properties.getMaxErrorRate()));
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,51 @@
+package training.empapploadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoadTestRunner implements CommandLineRunner, ExitCodeGenerator {
+
+    private final LoadTestProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private int exitCode;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (properties.getMaxP99() != null && properties.getRate() == null) {
+            throw new IllegalArgumentException("loadtest.max-p99 requires loadtest.rate, "
+                    + "back to back requests do not measure the time spent waiting in the queue");
+        }
+        try (var application = new ApplicationUnderTest(properties)) {
+            if (properties.getJar() != null) {
+                application.start();
+            }
+            var client = new EmployeesClient(properties.getBaseUrl(), properties.getConcurrency(), objectMapper);
+            try (var generator = new LoadGenerator(properties, client)) {
+                generator.seed();
+                generator.warmup();
+                var elapsed = generator.measure();
+
+                var report = new LoadTestReport(properties, generator.getStats(), elapsed);
+                report.print(System.out);
+                report.writeHistograms();
+                var violations = report.violations();
+                violations.forEach(v -> log.error("Limit exceeded: {}", v));
+                exitCode = violations.isEmpty() ? 0 : 1;
+            }
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,22 @@
+package training.empapploadtest;
+
+public enum Operation {
+
+    // GET /api/employees/{id}
+    GET,
+
+    // GET /api/employees
+    LIST,
+
+    // GET /api/employees?after=&limit=, csak a keyset lapozást ismerő moduloknál
+    PAGE,
+
+    // POST /api/employees
+    CREATE,
+
+    // PUT /api/employees/{id}
+    UPDATE,
+
+    // DELETE /api/employees/{id}
+    DELETE
+}
@@ -0,0 +1,48 @@
+package training.empapploadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies in microseconds and error count of one operation.
+ */
+public class OperationStats {
+
+    @Getter
+    private final Operation operation;
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+
+    private final LongAdder errors = new LongAdder();
+
+    public OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    public void record(long startNanos, boolean success) {
+        latencies.recordValue((System.nanoTime() - startNanos) / 1_000);
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public void reset() {
+        latencies.reset();
+        errors.reset();
+    }
+
+    public Histogram getLatencies() {
+        return latencies.copy();
+    }
+
+    public long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
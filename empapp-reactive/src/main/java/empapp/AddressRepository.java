@@ -0,0 +1,14 @@
+package empapp;
+
+import empapp.entity.Address;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface AddressRepository extends ReactiveCrudRepository<Address, Long> {
+
+    @Modifying
+    @Query("delete from address where employee_id = :employeeId")
+    Mono<Integer> deleteAllByEmployeeId(long employeeId);
+}
@@ -0,0 +1,50 @@
+package empapp;
+
+import empapp.dto.CreateEmployeeCommand;
+import empapp.dto.EmployeeDto;
+import empapp.dto.UpdateEmployeeCommand;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/employees")
+@AllArgsConstructor
+public class EmployeeController {
+
+    private EmployeeService employeeService;
+
+    @GetMapping
+    public Flux<EmployeeDto> employees() {
+        return employeeService.listEmployees();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<EmployeeDto> findEmployeeById(@PathVariable("id") long id) {
+        return employeeService.findEmployeeById(id);
+    }
+
+    @PostMapping // nem idempotens
+    @Operation(description = "creates an employee")
+    public Mono<ResponseEntity<EmployeeDto>> createEmployee(@RequestBody CreateEmployeeCommand command, UriComponentsBuilder uriComponentsBuilder) {
+        return employeeService.createEmployee(command)
+                .map(employeeDto -> ResponseEntity.created(uriComponentsBuilder.path("/api/employees/{id}").buildAndExpand(employeeDto.getId()).toUri()).body(employeeDto));
+    }
+
+    @PutMapping("/{id}") // idempotens
+    public Mono<EmployeeDto> updateEmployee(@PathVariable("id") long id, @RequestBody UpdateEmployeeCommand command) {
+        return employeeService.updateEmployee(id, command);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteEmployee(@PathVariable("id") long id) {
+        return employeeService.deleteEmployee(id);
+    }
+
+}
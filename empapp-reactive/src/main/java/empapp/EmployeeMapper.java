@@ -0,0 +1,29 @@
+package empapp;
+
+import empapp.dto.AddressDto;
+import empapp.dto.CreateAddressDto;
+import empapp.dto.CreateEmployeeCommand;
+import empapp.dto.EmployeeDto;
+import empapp.entity.Address;
+import empapp.entity.Employee;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface EmployeeMapper {
+
+    @Mapping(target = "id", source = "employee.id")
+    @Mapping(target = "name", source = "employee.name")
+    @Mapping(target = "addresses", source = "addresses")
+    EmployeeDto toEmployeeDto(Employee employee, List<Address> addresses);
+
+    AddressDto toAddressDto(Address address);
+
+    List<AddressDto> toAddressesDto(List<Address> addresses);
+
+    Employee toEmployee(CreateEmployeeCommand command);
+
+    Address toAddress(CreateAddressDto createAddressDto);
+}
@@ -0,0 +1,65 @@
+package empapp;
+
+import empapp.dto.AddressDto;
+import empapp.dto.EmployeeDto;
+import lombok.AllArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads employees with their addresses in one left join, ordered by employee id, so the rows of
+ * an employee arrive together and can be grouped while streaming.
+ */
+@Repository
+@AllArgsConstructor
+public class EmployeeQueryRepository {
+
+    private static final String SELECT = "select e.id as employee_id, e.name, a.id as address_id, a.city "
+            + "from employee e left join address a on a.employee_id = e.id ";
+
+    private DatabaseClient databaseClient;
+
+    public Flux<EmployeeDto> findAllWithAddresses() {
+        return toEmployees(databaseClient.sql(SELECT + "order by e.id, a.id"));
+    }
+
+    public Flux<EmployeeDto> findByIdWithAddresses(long id) {
+        return toEmployees(databaseClient.sql(SELECT + "where e.id = :id order by a.id").bind("id", id));
+    }
+
+    private Flux<EmployeeDto> toEmployees(DatabaseClient.GenericExecuteSpec spec) {
+        return spec
+                .map(row -> new EmployeeAddressRow(
+                        row.get("employee_id", Long.class),
+                        row.get("name", String.class),
+                        row.get("address_id", Long.class),
+                        row.get("city", String.class)))
+                .all()
+                .bufferUntilChanged(EmployeeAddressRow::employeeId)
+                .map(this::toEmployee);
+    }
+
+    private EmployeeDto toEmployee(List<EmployeeAddressRow> rows) {
+        EmployeeDto employee = new EmployeeDto();
+        employee.setId(rows.get(0).employeeId());
+        employee.setName(rows.get(0).name());
+        List<AddressDto> addresses = new ArrayList<>();
+        for (EmployeeAddressRow row : rows) {
+            if (row.addressId() != null) {
+                AddressDto address = new AddressDto();
+                address.setId(row.addressId());
+                address.setCity(row.city());
+                addresses.add(address);
+            }
+        }
+        employee.setAddresses(addresses);
+        return employee;
+    }
+
+    private record EmployeeAddressRow(Long employeeId, String name, Long addressId, String city) {
+    }
+}
@@ -0,0 +1,7 @@
+package empapp;
+
+import empapp.entity.Employee;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface EmployeeRepository extends ReactiveCrudRepository<Employee, Long> {
+}
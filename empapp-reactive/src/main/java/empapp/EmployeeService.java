@@ -0,0 +1,89 @@
+package empapp;
+
+import empapp.dto.CreateAddressDto;
+import empapp.dto.CreateEmployeeCommand;
+import empapp.dto.EmployeeDto;
+import empapp.dto.UpdateEmployeeCommand;
+import empapp.entity.Address;
+import empapp.entity.Employee;
+import lombok.AllArgsConstructor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@AllArgsConstructor
+public class EmployeeService {
+
+    private EmployeeRepository employeeRepository;
+
+    private AddressRepository addressRepository;
+
+    private EmployeeQueryRepository employeeQueryRepository;
+
+    private PooledIdGenerator idGenerator;
+
+    // az id-t a PooledIdGenerator adja, ezért a save() update-et futtatna, az insert() mindig beszúr
+    private R2dbcEntityTemplate template;
+
+    private EmployeeMapper employeeMapper;
+
+    @Transactional
+    public Mono<EmployeeDto> createEmployee(CreateEmployeeCommand command) {
+        Employee employee = employeeMapper.toEmployee(command);
+        List<CreateAddressDto> addresses = command.getAddresses() != null ? command.getAddresses() : Collections.emptyList();
+        return idGenerator.nextId(PooledIdGenerator.EMPLOYEE_SEQUENCE)
+                .flatMap(id -> {
+                    employee.setId(id);
+                    return template.insert(employee);
+                })
+                .flatMap(saved -> Flux.fromIterable(addresses)
+                        .map(employeeMapper::toAddress)
+                        .concatMap(address -> insertAddress(saved, address))
+                        .collectList()
+                        .map(savedAddresses -> employeeMapper.toEmployeeDto(saved, savedAddresses)));
+    }
+
+    private Mono<Address> insertAddress(Employee employee, Address address) {
+        return idGenerator.nextId(PooledIdGenerator.ADDRESS_SEQUENCE)
+                .flatMap(id -> {
+                    address.setId(id);
+                    address.setEmployeeId(employee.getId());
+                    return template.insert(address);
+                });
+    }
+
+    public Flux<EmployeeDto> listEmployees() {
+        return employeeQueryRepository.findAllWithAddresses();
+    }
+
+    public Mono<EmployeeDto> findEmployeeById(long id) {
+        return employeeQueryRepository.findByIdWithAddresses(id)
+                .singleOrEmpty()
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Employee not found with id: " + id)));
+    }
+
+    @Transactional
+    public Mono<EmployeeDto> updateEmployee(long id, UpdateEmployeeCommand command) {
+        return employeeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException("Employee not found with id: " + id)))
+                .flatMap(employee -> {
+                    employee.setName(command.getName());
+                    return employeeRepository.save(employee);
+                })
+                .then(findEmployeeById(id));
+    }
+
+    @Transactional
+    public Mono<Void> deleteEmployee(long id) {
+        return employeeRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? addressRepository.deleteAllByEmployeeId(id).then(employeeRepository.deleteById(id))
+                        : Mono.error(new NotFoundException("Employee not found with id: " + id)));
+    }
+}
@@ -0,0 +1,28 @@
+package empapp;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ServerWebExchange;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import org.zalando.problem.spring.webflux.advice.ProblemHandling;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+@ControllerAdvice
+public class EmployeesExceptionHandler implements ProblemHandling {
+
+    @ExceptionHandler
+    Mono<ResponseEntity<Problem>> handleException(NotFoundException exception, ServerWebExchange request) {
+        Problem problem =
+            Problem.builder()
+                .withType(URI.create("employees/employee-not-found"))
+                .withTitle("Not found")
+                .withStatus(Status.NOT_FOUND)
+                .withDetail(exception.getMessage())
+                .build();
+        return this.create(exception, problem, request);
+    }
+}
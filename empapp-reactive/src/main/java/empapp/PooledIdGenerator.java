@@ -0,0 +1,64 @@
+package empapp;
+
+import lombok.AllArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out ids from the employee_seq and address_seq sequences the same way as Hibernate's
+ * pooled optimizer in empapp-init does with allocationSize = 50: a sequence value N reserves
+ * the ids N - 49 .. N. So the two modules can write the same tables, and only every 50th
+ * insert needs a round trip for the id.
+ */
+@Component
+@AllArgsConstructor
+public class PooledIdGenerator {
+
+    public static final String EMPLOYEE_SEQUENCE = "employee_seq";
+
+    public static final String ADDRESS_SEQUENCE = "address_seq";
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    private DatabaseClient databaseClient;
+
+    public Mono<Long> nextId(String sequence) {
+        Pool pool = pools.computeIfAbsent(sequence, s -> new Pool());
+        long id = pool.next();
+        if (id > 0) {
+            return Mono.just(id);
+        }
+        return databaseClient.sql("select nextval('" + sequence + "')")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .map(pool::refill);
+    }
+
+    private static class Pool {
+
+        private long next = 1;
+
+        private long hi = 0;
+
+        synchronized long next() {
+            return next <= hi ? next++ : -1;
+        }
+
+        /**
+         * Párhuzamos lekérésnél az előző blokk maradéka elveszik, ez csak kihagyott id-kat jelent
+         */
+        synchronized long refill(long sequenceValue) {
+            // Az első érték (1) alatt nincs foglalható tartomány
+            long lo = Math.max(sequenceValue - ALLOCATION_SIZE + 1, 1);
+            next = lo + 1;
+            hi = sequenceValue;
+            return lo;
+        }
+    }
+}
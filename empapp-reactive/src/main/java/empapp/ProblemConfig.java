@@ -0,0 +1,15 @@
+package empapp;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.zalando.problem.jackson.ProblemModule;
+
+// WebFluxhoz nincs starter, a Problem JSON szerializációját regisztrálni kell
+@Configuration
+public class ProblemConfig {
+
+    @Bean
+    public ProblemModule problemModule() {
+        return new ProblemModule();
+    }
+}
@@ -0,0 +1,12 @@
+package empapp.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class AddressDto {
+
+    private Long id;
+
+    private String city;
+}
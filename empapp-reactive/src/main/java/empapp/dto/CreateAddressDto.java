@@ -0,0 +1,9 @@
+package empapp.dto;
+
+import lombok.Data;
+
+@Data
+public class CreateAddressDto {
+
+    private String city;
+}
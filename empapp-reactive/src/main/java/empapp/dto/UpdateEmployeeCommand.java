@@ -0,0 +1,9 @@
+package empapp.dto;
+
+import lombok.Data;
+
+@Data
+public class UpdateEmployeeCommand {
+
+    private String name;
+}
@@ -0,0 +1,25 @@
+package empapp.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import static lombok.AccessLevel.PRIVATE;
+
+@Table("address")
+@Data
+@NoArgsConstructor(access = PRIVATE)
+public class Address {
+
+    @Id
+    private Long id;
+
+    private String city;
+
+    private Long employeeId;
+
+    public Address(String city) {
+        this.city = city;
+    }
+}
@@ -0,0 +1,25 @@
+package empapp.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import static lombok.AccessLevel.PRIVATE;
+
+// R2DBC-ben nincs kapcsolatkezelés, a címeket az EmployeeQueryRepository egy left joinnal olvassa,
+// és a bufferUntilChanged fűzi az alkalmazotthoz; az EmployeeService külön szúrja be és törli őket
+@Table("employee")
+@Data
+@NoArgsConstructor(access = PRIVATE)
+public class Employee {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    public Employee(String name) {
+        this.name = name;
+    }
+}
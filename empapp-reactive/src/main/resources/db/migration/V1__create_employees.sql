@@ -0,0 +1,21 @@
+-- az allocationSize = 50 miatt a szekvencia is 50-esével lép (pooled optimizer)
+create sequence employee_seq start with 1 increment by 50 cache 10;
+create sequence address_seq start with 1 increment by 50 cache 10;
+
+-- a név módosításakor maradjon hely a HOT update-eknek
+create table employee (
+    id bigint not null,
+    name varchar(255),
+    constraint employee_pkey primary key (id)
+) with (fillfactor = 90);
+
+create table address (
+    id bigint not null,
+    city varchar(255),
+    employee_id bigint,
+    constraint address_pkey primary key (id),
+    constraint address_employee_id_fk foreign key (employee_id) references employee (id)
+);
+
+create index address_employee_id_idx on address (employee_id);
+create index address_city_employee_id_idx on address (city, employee_id);
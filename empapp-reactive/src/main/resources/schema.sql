@@ -0,0 +1,19 @@
+-- csak beágyazott (H2) adatbázis esetén fut le, PostgreSQL-en a db/migration alatti Flyway migrációk
+create sequence if not exists employee_seq start with 1 increment by 50;
+create sequence if not exists address_seq start with 1 increment by 50;
+
+create table if not exists employee (
+    id bigint not null,
+    name varchar(255),
+    constraint employee_pkey primary key (id)
+);
+
+create table if not exists address (
+    id bigint not null,
+    city varchar(255),
+    employee_id bigint,
+    constraint address_pkey primary key (id),
+    constraint address_employee_id_fk foreign key (employee_id) references employee (id)
+);
+
+create index if not exists address_employee_id_idx on address (employee_id);